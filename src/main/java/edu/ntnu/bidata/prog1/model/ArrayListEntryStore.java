@@ -0,0 +1,87 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Keeps workout entries as objects in an ArrayList on the Java heap.
+ * This is the store a WorkoutEntryBook uses unless it is given another one.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class ArrayListEntryStore implements WorkoutEntryStore
+{
+    private final List<WorkoutEntry> entries = new ArrayList<>();
+
+    @Override
+    public int size()
+    {
+        return entries.size();
+    }
+
+    @Override
+    public void add(WorkoutEntry entry)
+    {
+        entries.add(entry);
+    }
+
+    @Override
+    public WorkoutEntry get(int index)
+    {
+        return entries.get(index);
+    }
+
+    @Override
+    public void set(int index, WorkoutEntry entry)
+    {
+        entries.set(index, entry);
+    }
+
+    @Override
+    public WorkoutEntry remove(int index)
+    {
+        return entries.remove(index);
+    }
+
+    @Override
+    public int removeIf(int from, int to, IntPredicate test)
+    {
+        int kept = from;
+        for (int i = from; i < to; i++)
+        {
+            if (!test.test(i))
+            {
+                entries.set(kept++, entries.get(i));
+            }
+        }
+        entries.subList(kept, to).clear();
+        return to - kept;
+    }
+
+    @Override
+    public String getTrainerName(int index)
+    {
+        return entries.get(index).getTrainerName();
+    }
+
+    @Override
+    public String getWorkout(int index)
+    {
+        return entries.get(index).getWorkout();
+    }
+
+    @Override
+    public LocalDateTime getTimestamp(int index)
+    {
+        return entries.get(index).getTimestamp();
+    }
+
+    @Override
+    public int getTextLength(int index)
+    {
+        return entries.get(index).getText().length();
+    }
+}
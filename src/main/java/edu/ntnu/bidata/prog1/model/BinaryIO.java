@@ -0,0 +1,126 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes and reads the strings, times and entries of a saved book, for the book's parts in this package
+ * and for {@code WorkoutEntryBookStorage}, so they all use the same encoding.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public final class BinaryIO
+{
+    private BinaryIO()
+    {
+    }
+
+    /**
+     * Writes a string as its length followed by its UTF-8 bytes.
+     * Unlike {@link DataOutput#writeUTF(String)} this has no 64 KB limit.
+     *
+     * @param out where to write.
+     * @param s   the string to write.
+     * @throws IOException if writing fails.
+     */
+    public static void writeString(DataOutput out, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in where to read from.
+     * @return the string.
+     * @throws IOException if reading fails.
+     */
+    public static String readString(DataInput in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0)
+        {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a time as UTC seconds and nanoseconds.
+     *
+     * @param out  where to write.
+     * @param time the time to write.
+     * @throws IOException if writing fails.
+     */
+    public static void writeTime(DataOutput out, LocalDateTime time) throws IOException
+    {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    /**
+     * Reads a time written by {@link #writeTime(DataOutput, LocalDateTime)}.
+     *
+     * @param in where to read from.
+     * @return the time.
+     * @throws IOException if reading fails or the time is invalid.
+     */
+    public static LocalDateTime readTime(DataInput in) throws IOException
+    {
+        try
+        {
+            return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        }
+        catch (RuntimeException e)
+        {
+            throw new IOException("Invalid time", e);
+        }
+    }
+
+    /**
+     * Writes an entry's trainer, workout, text and timestamp.
+     *
+     * @param out   where to write.
+     * @param entry the entry to write.
+     * @throws IOException if writing fails.
+     */
+    public static void writeEntry(DataOutput out, WorkoutEntry entry) throws IOException
+    {
+        writeString(out, entry.getTrainerName());
+        writeString(out, entry.getWorkout());
+        writeString(out, entry.getText());
+        writeTime(out, entry.getTimestamp());
+    }
+
+    /**
+     * Reads an entry written by {@link #writeEntry(DataOutput, WorkoutEntry)}.
+     *
+     * @param in where to read from.
+     * @return the entry.
+     * @throws IOException if reading fails or the entry is invalid.
+     */
+    public static WorkoutEntry readEntry(DataInput in) throws IOException
+    {
+        String trainer = readString(in);
+        String workout = readString(in);
+        String text = readString(in);
+        LocalDateTime timestamp = readTime(in);
+        try
+        {
+            return new WorkoutEntry(trainer, workout, text, timestamp);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException("Invalid entry: " + e.getMessage(), e);
+        }
+    }
+}
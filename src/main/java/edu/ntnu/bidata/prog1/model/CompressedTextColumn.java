@@ -0,0 +1,380 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores many short texts compressed in blocks.
+ * New texts are collected in an open block; once it holds {@value #BLOCK_SIZE} bytes it is compressed with
+ * {@link Deflater}, using a preset dictionary of phrases that are common in the texts, so even short
+ * and repetitive texts compress well. A few recently read blocks are kept decompressed in a cache.
+ *
+ * <ul>
+ * <li>Append a text and get back its id.<li>
+ * <li>Read a text now, or get a loader that reads it later.<li>
+ * <li>Train a dictionary from sample texts.<li>
+ * <li>Report the compression ratio and the time spent decompressing.<li>
+ *</ul>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class CompressedTextColumn
+{
+    // Raw bytes collected before a block is compressed
+    static final int BLOCK_SIZE = 16 * 1024;
+
+    // Deflate cannot look back further than 32 KB, so a larger dictionary would not help
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int CACHE_BLOCKS = 32;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<byte[]> dictionaries = new ArrayList<>();
+
+    // The texts of the block that has not been compressed yet
+    private final List<String> openTexts = new ArrayList<>();
+    private int openBytes;
+
+    // Decompressed texts of recently read blocks, least recently used first
+    private final LinkedHashMap<Block, String[]> cache = new LinkedHashMap<>(CACHE_BLOCKS, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Block, String[]> eldest)
+        {
+            return size() > CACHE_BLOCKS;
+        }
+    };
+
+    // Statistics
+    private long rawBytes;
+    private long compressedBytes;
+    private long reads;
+    private long cacheHits;
+    private long decompressions;
+    private long readNanos;
+
+    /**
+     * A compressed block. Blocks never change, so an entry that was read earlier can still load
+     * its text from the block even after its store has moved the texts to a new column.
+     */
+    private static class Block
+    {
+        private final byte[] data;
+        private final int[] ends;
+        private final int rawLength;
+        private final int dictionary;
+
+        private Block(byte[] data, int[] ends, int rawLength, int dictionary)
+        {
+            this.data = data;
+            this.ends = ends;
+            this.rawLength = rawLength;
+            this.dictionary = dictionary;
+        }
+    }
+
+    /**
+     * Appends a text to the column.
+     *
+     * @param text the text to append.
+     * @return the id of the text.
+     */
+    public synchronized long append(String text)
+    {
+        long id = ((long) blocks.size() << 32) | openTexts.size();
+        int bytes = text.getBytes(StandardCharsets.UTF_8).length;
+        openTexts.add(text);
+        openBytes += bytes;
+        rawBytes += bytes;
+        if (openBytes >= BLOCK_SIZE)
+        {
+            seal();
+        }
+        return id;
+    }
+
+    /**
+     * Reads the text with the given id, decompressing its block if it is not cached.
+     *
+     * @param id the id returned by {@link #append(String)}.
+     * @return the text.
+     */
+    public synchronized String get(long id)
+    {
+        int block = (int) (id >>> 32);
+        int position = (int) id;
+        if (block == blocks.size())
+        {
+            return openTexts.get(position);
+        }
+        return read(blocks.get(block), position);
+    }
+
+    /**
+     * Returns a loader for the text with the given id. Texts that are not compressed yet are
+     * returned as they are; others are decompressed when the loader is called.
+     *
+     * @param id the id returned by {@link #append(String)}.
+     * @return a loader for the text.
+     */
+    public synchronized Supplier<String> loader(long id)
+    {
+        int block = (int) (id >>> 32);
+        int position = (int) id;
+        if (block == blocks.size())
+        {
+            String text = openTexts.get(position);
+            return () -> text;
+        }
+        Block b = blocks.get(block);
+        return () -> read(b, position);
+    }
+
+    /**
+     * Trains a new dictionary from sample texts. Blocks compressed after this use the new dictionary;
+     * blocks compressed earlier keep the one they were compressed with.
+     * <p>
+     * The dictionary holds the phrases of one to four words that save the most bytes
+     * (number of uses times length), with the most valuable phrases last, where Deflate finds them cheapest.
+     * </p>
+     *
+     * @param samples the texts to learn from.
+     * @throws IllegalArgumentException if samples is null.
+     */
+    public synchronized void trainDictionary(List<String> samples)
+    {
+        if (samples == null)
+        {
+            throw new IllegalArgumentException("Samples cannot be null");
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String sample : samples)
+        {
+            String[] words = sample.split("\\s+");
+            for (int i = 0; i < words.length; i++)
+            {
+                StringBuilder phrase = new StringBuilder();
+                for (int n = 0; n < 4 && i + n < words.length; n++)
+                {
+                    phrase.append(words[i + n]).append(' ');
+                    counts.merge(phrase.toString(), 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> phrases = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : counts.entrySet())
+        {
+            if (e.getValue() > 1)
+            {
+                phrases.add(e);
+            }
+        }
+        phrases.sort(Comparator.comparingLong((Map.Entry<String, Integer> e) -> (long) e.getValue() * e.getKey().length())
+                .reversed());
+
+        Deque<String> chosen = new ArrayDeque<>();
+        StringBuilder all = new StringBuilder();
+        int size = 0;
+        for (Map.Entry<String, Integer> e : phrases)
+        {
+            String phrase = e.getKey();
+            int length = phrase.getBytes(StandardCharsets.UTF_8).length;
+            if (size + length > MAX_DICTIONARY_SIZE)
+            {
+                break;
+            }
+            if (all.indexOf(phrase) < 0)
+            {
+                chosen.push(phrase);
+                all.append(phrase);
+                size += length;
+            }
+        }
+
+        // most valuable phrases at the end, closest to the data
+        StringBuilder dictionary = new StringBuilder();
+        chosen.forEach(dictionary::append);
+        if (dictionary.length() > 0)
+        {
+            dictionaries.add(dictionary.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns whether a dictionary has been trained.
+     *
+     * @return true if at least one dictionary has been trained.
+     */
+    public synchronized boolean hasDictionary()
+    {
+        return !dictionaries.isEmpty();
+    }
+
+    /**
+     * Returns the number of bytes of all appended texts divided by the number of bytes they take up.
+     * Texts that are not compressed yet count at their full size.
+     *
+     * @return the compression ratio, or 1 if the column is empty.
+     */
+    public synchronized double getCompressionRatio()
+    {
+        long stored = compressedBytes + openBytes;
+        return stored == 0 ? 1 : (double) rawBytes / stored;
+    }
+
+    /**
+     * Returns the number of bytes the texts take up, compressed or not.
+     *
+     * @return the stored size in bytes.
+     */
+    public synchronized long getStoredSize()
+    {
+        return compressedBytes + openBytes;
+    }
+
+    /**
+     * Returns the average time a compressed text took to read, in microseconds,
+     * including reads served from the cache.
+     *
+     * @return the average read time, or 0 if no compressed text has been read.
+     */
+    public synchronized double getAverageReadMicros()
+    {
+        return reads == 0 ? 0 : readNanos / 1e3 / reads;
+    }
+
+    /**
+     * Returns the share of compressed text reads that were served from the cache.
+     *
+     * @return the cache hit rate between 0 and 1, or 0 if no compressed text has been read.
+     */
+    public synchronized double getCacheHitRate()
+    {
+        return reads == 0 ? 0 : (double) cacheHits / reads;
+    }
+
+    /**
+     * Returns the number of blocks that have been decompressed.
+     *
+     * @return the number of decompressed blocks.
+     */
+    public synchronized long getDecompressions()
+    {
+        return decompressions;
+    }
+
+    /**
+     * Reads one text from a compressed block, through the cache.
+     */
+    private synchronized String read(Block block, int position)
+    {
+        long t0 = System.nanoTime();
+        reads++;
+        String[] texts = cache.get(block);
+        if (texts != null)
+        {
+            cacheHits++;
+        }
+        else
+        {
+            texts = decompress(block);
+            cache.put(block, texts);
+            decompressions++;
+        }
+        readNanos += System.nanoTime() - t0;
+        return texts[position];
+    }
+
+    /**
+     * Compresses the open block and starts a new one.
+     */
+    private void seal()
+    {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(openBytes * 2);
+        int[] ends = new int[openTexts.size()];
+        for (int i = 0; i < openTexts.size(); i++)
+        {
+            raw.writeBytes(openTexts.get(i).getBytes(StandardCharsets.UTF_8));
+            ends[i] = raw.size();
+        }
+
+        int dictionary = dictionaries.size() - 1;
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try
+        {
+            if (dictionary >= 0)
+            {
+                deflater.setDictionary(dictionaries.get(dictionary));
+            }
+            deflater.setInput(raw.toByteArray());
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.size() / 3 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished())
+            {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            blocks.add(new Block(out.toByteArray(), ends, raw.size(), dictionary));
+            compressedBytes += out.size() + 4L * ends.length;
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        openTexts.clear();
+        openBytes = 0;
+    }
+
+    /**
+     * Decompresses a block and splits it into its texts.
+     */
+    private String[] decompress(Block block)
+    {
+        byte[] raw = new byte[block.rawLength];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(block.data);
+            int length = 0;
+            while (length < raw.length)
+            {
+                int n = inflater.inflate(raw, length, raw.length - length);
+                if (n == 0 && inflater.needsDictionary())
+                {
+                    inflater.setDictionary(dictionaries.get(block.dictionary));
+                }
+                else if (n == 0 && (inflater.finished() || inflater.needsInput()))
+                {
+                    throw new IllegalStateException("Compressed text block is truncated");
+                }
+                length += n;
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalStateException("Compressed text block is corrupt", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        String[] texts = new String[block.ends.length];
+        int start = 0;
+        for (int i = 0; i < texts.length; i++)
+        {
+            texts[i] = new String(raw, start, block.ends[i] - start, StandardCharsets.UTF_8);
+            start = block.ends[i];
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,307 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Keeps workout entries in columns of primitive arrays, with the texts compressed in a
+ * {@link CompressedTextColumn}. Entries read from the store load their text only when
+ * {@link WorkoutEntry#getText()} or {@link WorkoutEntry#toString()} is called,
+ * so searches that are only counted or filtered never decompress anything.
+ * <p>
+ * Once the store holds {@value #DICTIONARY_SAMPLES} entries, a compression dictionary is trained
+ * from their texts. {@link #trainDictionary()} can be called again later to train on newer texts.
+ * When more than half of the stored texts belong to removed entries, the texts are moved to a new column.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class CompressedTextEntryStore implements WorkoutEntryStore
+{
+    // Number of entries to train the first dictionary on, and the most texts any dictionary is trained on
+    static final int DICTIONARY_SAMPLES = 1000;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] trainers = new int[INITIAL_CAPACITY];
+    private int[] workouts = new int[INITIAL_CAPACITY];
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private int[] nanos = new int[INITIAL_CAPACITY];
+    private int[] textLengths = new int[INITIAL_CAPACITY];
+    private long[] textIds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private CompressedTextColumn texts = new CompressedTextColumn();
+    private int removedTexts;
+
+    // Trainer names and workouts, stored once each
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public void add(WorkoutEntry entry)
+    {
+        Objects.requireNonNull(entry);
+        if (size == trainers.length)
+        {
+            grow();
+        }
+        write(size, entry);
+        size++;
+
+        if (size == DICTIONARY_SAMPLES && !texts.hasDictionary())
+        {
+            trainDictionary();
+        }
+    }
+
+    @Override
+    public WorkoutEntry get(int index)
+    {
+        Objects.checkIndex(index, size);
+        return WorkoutEntry.withLazyText(strings.get(trainers[index]), strings.get(workouts[index]),
+                texts.loader(textIds[index]), timestamp(index));
+    }
+
+    @Override
+    public void set(int index, WorkoutEntry entry)
+    {
+        Objects.checkIndex(index, size);
+        Objects.requireNonNull(entry);
+        write(index, entry);
+        removedTexts++;
+        moveTextsIfWasteful();
+    }
+
+    @Override
+    public WorkoutEntry remove(int index)
+    {
+        WorkoutEntry removed = get(index);
+        int moved = size - index - 1;
+        System.arraycopy(trainers, index + 1, trainers, index, moved);
+        System.arraycopy(workouts, index + 1, workouts, index, moved);
+        System.arraycopy(epochSeconds, index + 1, epochSeconds, index, moved);
+        System.arraycopy(nanos, index + 1, nanos, index, moved);
+        System.arraycopy(textLengths, index + 1, textLengths, index, moved);
+        System.arraycopy(textIds, index + 1, textIds, index, moved);
+        size--;
+        removedTexts++;
+        moveTextsIfWasteful();
+        return removed;
+    }
+
+    @Override
+    public int removeIf(int from, int to, IntPredicate test)
+    {
+        Objects.checkFromToIndex(from, to, size);
+        int kept = from;
+        for (int i = from; i < to; i++)
+        {
+            if (!test.test(i))
+            {
+                copy(i, kept++);
+            }
+        }
+        int removed = to - kept;
+        for (int i = to; i < size; i++)
+        {
+            copy(i, i - removed);
+        }
+        size -= removed;
+        removedTexts += removed;
+        moveTextsIfWasteful();
+        return removed;
+    }
+
+    @Override
+    public String getTrainerName(int index)
+    {
+        Objects.checkIndex(index, size);
+        return strings.get(trainers[index]);
+    }
+
+    @Override
+    public String getWorkout(int index)
+    {
+        Objects.checkIndex(index, size);
+        return strings.get(workouts[index]);
+    }
+
+    @Override
+    public LocalDateTime getTimestamp(int index)
+    {
+        Objects.checkIndex(index, size);
+        return timestamp(index);
+    }
+
+    @Override
+    public long getEpochDay(int index)
+    {
+        Objects.checkIndex(index, size);
+        return Math.floorDiv(epochSeconds[index], 86_400L);
+    }
+
+    @Override
+    public int getTextLength(int index)
+    {
+        Objects.checkIndex(index, size);
+        return textLengths[index];
+    }
+
+    /**
+     * Trains a new compression dictionary from the texts of up to {@value #DICTIONARY_SAMPLES} entries
+     * spread evenly over the store. Texts added after this are compressed with the new dictionary.
+     */
+    public void trainDictionary()
+    {
+        texts.trainDictionary(sampleTexts());
+    }
+
+    /**
+     * Returns the number of bytes of all stored texts divided by the number of bytes they take up compressed.
+     *
+     * @return the compression ratio.
+     */
+    public double getCompressionRatio()
+    {
+        return texts.getCompressionRatio();
+    }
+
+    /**
+     * Returns the number of bytes the texts take up compressed.
+     *
+     * @return the compressed size of the texts.
+     */
+    public long getCompressedTextSize()
+    {
+        return texts.getStoredSize();
+    }
+
+    /**
+     * Returns the average time it took to load a compressed text, in microseconds.
+     *
+     * @return the average load time.
+     */
+    public double getAverageTextReadMicros()
+    {
+        return texts.getAverageReadMicros();
+    }
+
+    /**
+     * Returns the share of compressed text loads that did not need to decompress a block.
+     *
+     * @return the cache hit rate between 0 and 1.
+     */
+    public double getTextCacheHitRate()
+    {
+        return texts.getCacheHitRate();
+    }
+
+    /**
+     * Writes an entry to the given index, appending its text to the text column.
+     */
+    private void write(int index, WorkoutEntry entry)
+    {
+        LocalDateTime timestamp = entry.getTimestamp();
+        trainers[index] = stringId(entry.getTrainerName());
+        workouts[index] = stringId(entry.getWorkout());
+        epochSeconds[index] = timestamp.toEpochSecond(ZoneOffset.UTC);
+        nanos[index] = timestamp.getNano();
+        textLengths[index] = entry.getText().length();
+        textIds[index] = texts.append(entry.getText());
+    }
+
+    /**
+     * Copies the entry at one index to another.
+     */
+    private void copy(int from, int to)
+    {
+        trainers[to] = trainers[from];
+        workouts[to] = workouts[from];
+        epochSeconds[to] = epochSeconds[from];
+        nanos[to] = nanos[from];
+        textLengths[to] = textLengths[from];
+        textIds[to] = textIds[from];
+    }
+
+    /**
+     * Returns the timestamp of the entry at the given index.
+     */
+    private LocalDateTime timestamp(int index)
+    {
+        return LocalDateTime.ofEpochSecond(epochSeconds[index], nanos[index], ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the number of a trainer name or workout, adding it to the dictionary if it is new.
+     */
+    private int stringId(String s)
+    {
+        Integer id = stringIds.get(s);
+        if (id == null)
+        {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the texts of up to {@value #DICTIONARY_SAMPLES} entries spread evenly over the store.
+     */
+    private List<String> sampleTexts()
+    {
+        int step = Math.max(1, size / DICTIONARY_SAMPLES);
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < size; i += step)
+        {
+            samples.add(texts.get(textIds[i]));
+        }
+        return samples;
+    }
+
+    /**
+     * Moves the texts of the current entries to a new column, with a freshly trained dictionary,
+     * once more of the stored texts belong to removed entries than to current ones.
+     */
+    private void moveTextsIfWasteful()
+    {
+        if (removedTexts <= size || removedTexts < DICTIONARY_SAMPLES)
+        {
+            return;
+        }
+
+        CompressedTextColumn moved = new CompressedTextColumn();
+        moved.trainDictionary(sampleTexts());
+        for (int i = 0; i < size; i++)
+        {
+            textIds[i] = moved.append(texts.get(textIds[i]));
+        }
+        texts = moved;
+        removedTexts = 0;
+    }
+
+    /**
+     * Doubles the capacity of every column.
+     */
+    private void grow()
+    {
+        int capacity = trainers.length * 2;
+        trainers = Arrays.copyOf(trainers, capacity);
+        workouts = Arrays.copyOf(workouts, capacity);
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        nanos = Arrays.copyOf(nanos, capacity);
+        textLengths = Arrays.copyOf(textLengths, capacity);
+        textIds = Arrays.copyOf(textIds, capacity);
+    }
+}
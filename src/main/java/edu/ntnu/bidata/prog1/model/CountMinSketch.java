@@ -0,0 +1,240 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Estimates how often each string has been counted, using a fixed amount of memory.
+ * <p>
+ * The sketch is a table of {@code depth} rows of {@code width} counters. A string is counted in one
+ * counter per row, chosen by its hash, and its estimate is the smallest of those counters.
+ * The estimate is never below the true count. With probability 1 - e<sup>-depth</sup> it is at most
+ * e / width times the total of all counts above it, so a 2048 by 5 sketch (80 KB) overestimates by at most
+ * 0.13 % of the total in more than 99 % of lookups.
+ * </p>
+ * <p>
+ * Counts can be subtracted again, as long as no string's count goes below zero.
+ * Two sketches of the same width and depth can be merged, and the result counts what was counted in either.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class CountMinSketch
+{
+    private final int width;
+    private final int depth;
+    private final long[] counts;
+    private long total;
+
+    /**
+     * Create an empty CountMinSketch.
+     *
+     * @param width the number of counters per row, a power of two.
+     * @param depth the number of rows, from 1 to 16.
+     * @throws IllegalArgumentException if the width is not a positive power of two, or the depth is outside 1 to 16.
+     */
+    public CountMinSketch(int width, int depth)
+    {
+        if (width <= 0 || Integer.bitCount(width) != 1)
+        {
+            throw new IllegalArgumentException("Width must be a positive power of two");
+        }
+        if (depth < 1 || depth > 16)
+        {
+            throw new IllegalArgumentException("Depth must be from 1 to 16");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new long[width * depth];
+    }
+
+    /**
+     * Adds to, or with a negative count subtracts from, the count of a string.
+     *
+     * @param value the string to count.
+     * @param count the amount to add.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public void add(String value, long count)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        long hash = Hashing.hash64(value);
+        for (int row = 0; row < depth; row++)
+        {
+            counts[cell(hash, row)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * Returns the estimated count of a string. It is never below the true count.
+     *
+     * @param value the string to look up.
+     * @return the estimated count, or 0 if the value is null.
+     */
+    public long estimate(String value)
+    {
+        if (value == null)
+        {
+            return 0;
+        }
+        long hash = Hashing.hash64(value);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++)
+        {
+            min = Math.min(min, counts[cell(hash, row)]);
+        }
+        return Math.max(0, min);
+    }
+
+    /**
+     * Adds everything counted in another sketch to this one.
+     *
+     * @param other the sketch to merge into this one.
+     * @throws IllegalArgumentException if the other sketch is null or has a different width or depth.
+     */
+    public void merge(CountMinSketch other)
+    {
+        if (other == null || other.width != width || other.depth != depth)
+        {
+            throw new IllegalArgumentException("Can only merge a sketch with the same width and depth");
+        }
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Writes the width, depth and total, and only the counters that are not zero, since most are
+     * in the sketch of a small book.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    void write(DataOutput out) throws IOException
+    {
+        out.writeInt(width);
+        out.writeInt(depth);
+        out.writeLong(total);
+        int used = 0;
+        for (long count : counts)
+        {
+            if (count != 0)
+            {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for (int i = 0; i < counts.length; i++)
+        {
+            if (counts[i] != 0)
+            {
+                out.writeInt(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a sketch written by {@link #write(DataOutput)}.
+     *
+     * @param in where to read from.
+     * @return the sketch.
+     * @throws IOException if reading fails or the sketch is invalid.
+     */
+    static CountMinSketch read(DataInput in) throws IOException
+    {
+        CountMinSketch sketch;
+        try
+        {
+            sketch = new CountMinSketch(in.readInt(), in.readInt());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException(e.getMessage(), e);
+        }
+        sketch.total = in.readLong();
+        int used = in.readInt();
+        for (int i = 0; i < used; i++)
+        {
+            int cell = in.readInt();
+            if (cell < 0 || cell >= sketch.counts.length)
+            {
+                throw new IOException("Invalid counter: " + cell);
+            }
+            sketch.counts[cell] = in.readLong();
+        }
+        return sketch;
+    }
+
+    /**
+     * Returns a copy that is not affected by later changes to this sketch.
+     *
+     * @return a copy of this sketch.
+     */
+    public CountMinSketch copy()
+    {
+        CountMinSketch copy = new CountMinSketch(width, depth);
+        System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+        copy.total = total;
+        return copy;
+    }
+
+    /**
+     * Returns the total of all counts.
+     *
+     * @return the total.
+     */
+    public long getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * Returns the largest overestimate, as a fraction of the total, that holds with probability {@link #getConfidence()}.
+     *
+     * @return e / width.
+     */
+    public double getRelativeError()
+    {
+        return Math.E / width;
+    }
+
+    /**
+     * Returns the probability that an estimate is within {@link #getRelativeError()} of the true count.
+     *
+     * @return 1 - e<sup>-depth</sup>.
+     */
+    public double getConfidence()
+    {
+        return 1 - Math.exp(-depth);
+    }
+
+    /**
+     * Returns the number of bytes used by the counters.
+     *
+     * @return the size in bytes.
+     */
+    public int getSize()
+    {
+        return counts.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the index of the counter for a hash in a row. The rows use the hashes
+     * h1 + row * h2, which behave like independent hash functions.
+     */
+    private int cell(long hash, int row)
+    {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+}
@@ -0,0 +1,146 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values a {@link WorkoutEntryBook} works out once for each entry in its store, kept in primitive arrays
+ * in the same order as the store. They stay known after retention has dropped an entry's text,
+ * so deleting the entry can undo exactly what adding it did.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+class EntryColumns
+{
+    // Fingerprint of each entry as it was added, before retention could drop its text
+    private long[] fingerprints = new long[1024];
+
+    // Heaviest load in kg mentioned in each entry's text, or NaN
+    private double[] loads = new double[1024];
+    private int size;
+
+    /**
+     * Appends the values of an entry that has been appended to the store.
+     *
+     * @param fingerprint the entry's fingerprint.
+     * @param load        the entry's load, or NaN.
+     */
+    void add(long fingerprint, double load)
+    {
+        if (size == loads.length)
+        {
+            fingerprints = Arrays.copyOf(fingerprints, size * 2);
+            loads = Arrays.copyOf(loads, size * 2);
+        }
+        fingerprints[size] = fingerprint;
+        loads[size] = load;
+        size++;
+    }
+
+    /**
+     * Returns the fingerprint the entry at the given index had when it was added.
+     *
+     * @param index the index of the entry.
+     * @return the fingerprint.
+     */
+    long getFingerprint(int index)
+    {
+        return fingerprints[index];
+    }
+
+    /**
+     * Returns the load of the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @return the load in kg, or NaN.
+     */
+    double getLoad(int index)
+    {
+        return loads[index];
+    }
+
+    /**
+     * Removes the values of an entry that has been removed from the store.
+     *
+     * @param index the index the entry had.
+     */
+    void remove(int index)
+    {
+        System.arraycopy(fingerprints, index + 1, fingerprints, index, size - index - 1);
+        System.arraycopy(loads, index + 1, loads, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Removes the values of entries that retention has removed from the store.
+     *
+     * @param from    the index of the first entry that may have been removed.
+     * @param removed the removed entries, counted from {@code from}, as they were numbered before removal.
+     * @param before  the number of entries in the store before removal.
+     */
+    void forget(int from, BitSet removed, int before)
+    {
+        int kept = from;
+        for (int i = from; i < before; i++)
+        {
+            if (!removed.get(i - from))
+            {
+                fingerprints[kept] = fingerprints[i];
+                loads[kept] = loads[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Returns the number of bytes used by the columns.
+     *
+     * @return the size in bytes.
+     */
+    long getSize()
+    {
+        return (long) fingerprints.length * Long.BYTES + (long) loads.length * Double.BYTES;
+    }
+
+    /**
+     * Writes the values of every entry.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    void write(DataOutput out) throws IOException
+    {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++)
+        {
+            out.writeLong(fingerprints[i]);
+            out.writeDouble(loads[i]);
+        }
+    }
+
+    /**
+     * Replaces the values with those written by {@link #write(DataOutput)}.
+     *
+     * @param in      where to read from.
+     * @param entries the number of entries in the store, which must match.
+     * @throws IOException if reading fails or the number of entries does not match.
+     */
+    void read(DataInput in, int entries) throws IOException
+    {
+        int n = in.readInt();
+        if (n != entries)
+        {
+            throw new IOException("Expected values for " + entries + " entries, found " + n);
+        }
+        size = 0;
+        for (int i = 0; i < n; i++)
+        {
+            add(in.readLong(), in.readDouble());
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers which workout entries a book holds by a 64-bit fingerprint of their trainer, workout,
+ * timestamp and text, so a resubmitted entry can be recognised without comparing it to every entry.
+ * <p>
+ * The fingerprints are kept in an open-addressing table of longs, about 16 bytes per entry.
+ * In front of it is a Bloom filter of about {@value #BLOOM_BITS_PER_ENTRY} bits per entry,
+ * which answers most lookups of new entries without touching the table. Two different entries
+ * share a fingerprint with a probability of about n<sup>2</sup> / 2<sup>65</sup>, less than one in
+ * a million even for ten million entries.
+ * </p>
+ * <p>
+ * The same fingerprint can be added more than once; it is then remembered until it has been
+ * removed as many times.
+ * </p>
+ * <p>
+ * A book keeps the fingerprints of entries that retention has rolled up, since they are still counted
+ * in its roll-ups and statistics, and forgetting them would let a resubmitted entry be counted twice.
+ * That keeps about 16 bytes per rolled up entry, a small part of what rolling it up frees.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class EntryFingerprintSet
+{
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // With 10 bits and 7 hashes per entry, about 1 % of lookups of new entries pass the filter
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_HASHES = 7;
+
+    // Open-addressing table with linear probing; 0 marks an empty slot
+    private long[] slots = new long[INITIAL_CAPACITY * 2];
+    private int size;
+
+    // Number of copies beyond the first, for the rare fingerprints added more than once
+    private final Map<Long, Integer> extraCopies = new HashMap<>();
+
+    private long[] bloom = new long[INITIAL_CAPACITY * BLOOM_BITS_PER_ENTRY / 64];
+    private int bloomCapacity = INITIAL_CAPACITY;
+
+    private long lookups;
+    private long bloomRejections;
+
+    /**
+     * Returns the fingerprint of an entry. The trainer name and workout are trimmed, as the book does.
+     *
+     * @param entry the entry.
+     * @return the fingerprint, never 0.
+     */
+    public static long fingerprint(WorkoutEntry entry)
+    {
+        long h = Hashing.fnv(Hashing.FNV_OFFSET, entry.getTrainerName().trim());
+        h = Hashing.fnv(h, "\u0000");
+        h = Hashing.fnv(h, entry.getWorkout().trim());
+        h = Hashing.fnv(h, "\u0000");
+        h = Hashing.fnv(h, entry.getText());
+
+        LocalDateTime timestamp = entry.getTimestamp();
+        long time = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+        long fingerprint = Hashing.mix(Hashing.mix(h) ^ time);
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    /**
+     * Returns whether a fingerprint has been added and not removed since.
+     *
+     * @param fingerprint the fingerprint to look up.
+     * @return true if the fingerprint is in the set.
+     */
+    public boolean contains(long fingerprint)
+    {
+        lookups++;
+        if (!mightContain(fingerprint))
+        {
+            bloomRejections++;
+            return false;
+        }
+        return slots[find(fingerprint)] == fingerprint;
+    }
+
+    /**
+     * Adds a fingerprint.
+     *
+     * @param fingerprint the fingerprint to add, not 0.
+     * @return true if it was not in the set before.
+     * @throws IllegalArgumentException if the fingerprint is 0.
+     */
+    public boolean add(long fingerprint)
+    {
+        if (fingerprint == 0)
+        {
+            throw new IllegalArgumentException("Fingerprint cannot be 0");
+        }
+        int slot = find(fingerprint);
+        if (slots[slot] == fingerprint)
+        {
+            extraCopies.merge(fingerprint, 1, Integer::sum);
+            return false;
+        }
+
+        slots[slot] = fingerprint;
+        size++;
+        if (size > bloomCapacity)
+        {
+            rebuildBloom(bloomCapacity * 2);
+        }
+        else
+        {
+            setBloomBits(fingerprint);
+        }
+        if (size * 2 > slots.length)
+        {
+            resize(slots.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes one copy of a fingerprint. Its bits stay set in the Bloom filter until the filter
+     * is next rebuilt, which only costs a lookup in the table.
+     *
+     * @param fingerprint the fingerprint to remove.
+     * @return true if it was in the set.
+     */
+    public boolean remove(long fingerprint)
+    {
+        int hole = find(fingerprint);
+        if (fingerprint == 0 || slots[hole] != fingerprint)
+        {
+            return false;
+        }
+        Integer extra = extraCopies.get(fingerprint);
+        if (extra != null)
+        {
+            if (extra == 1)
+            {
+                extraCopies.remove(fingerprint);
+            }
+            else
+            {
+                extraCopies.put(fingerprint, extra - 1);
+            }
+            return true;
+        }
+
+        // shift later fingerprints of the same run back, so lookups never stop at the hole
+        int mask = slots.length - 1;
+        for (int i = (hole + 1) & mask; slots[i] != 0; i = (i + 1) & mask)
+        {
+            int home = home(slots[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask))
+            {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Writes every fingerprint with its number of copies.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    void write(DataOutput out) throws IOException
+    {
+        out.writeInt(size);
+        for (long fingerprint : slots)
+        {
+            if (fingerprint != 0)
+            {
+                out.writeLong(fingerprint);
+                out.writeInt(1 + extraCopies.getOrDefault(fingerprint, 0));
+            }
+        }
+    }
+
+    /**
+     * Replaces the contents of the set with the fingerprints written by {@link #write(DataOutput)}.
+     *
+     * @param in where to read from.
+     * @throws IOException if reading fails.
+     */
+    void read(DataInput in) throws IOException
+    {
+        slots = new long[INITIAL_CAPACITY * 2];
+        size = 0;
+        extraCopies.clear();
+        bloomCapacity = INITIAL_CAPACITY;
+        bloom = new long[INITIAL_CAPACITY * BLOOM_BITS_PER_ENTRY / 64];
+
+        int n = in.readInt();
+        for (int i = 0; i < n; i++)
+        {
+            long fingerprint = in.readLong();
+            int copies = in.readInt();
+            if (fingerprint == 0 || copies < 1)
+            {
+                throw new IOException("Invalid fingerprint");
+            }
+            add(fingerprint);
+            if (copies > 1)
+            {
+                extraCopies.put(fingerprint, copies - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct fingerprints in the set.
+     *
+     * @return the number of fingerprints.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used by the table and the Bloom filter.
+     *
+     * @return the size in bytes.
+     */
+    public long getSize()
+    {
+        return (long) (slots.length + bloom.length) * Long.BYTES;
+    }
+
+    /**
+     * Returns the share of lookups answered by the Bloom filter alone.
+     *
+     * @return the rejection rate between 0 and 1, or 0 if nothing has been looked up.
+     */
+    public double getBloomRejectionRate()
+    {
+        return lookups == 0 ? 0 : (double) bloomRejections / lookups;
+    }
+
+    /**
+     * Returns the slot holding a fingerprint, or the empty slot where it would go.
+     */
+    private int find(long fingerprint)
+    {
+        int mask = slots.length - 1;
+        int i = home(fingerprint);
+        while (slots[i] != 0 && slots[i] != fingerprint)
+        {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the slot a fingerprint is placed in when nothing else is there.
+     */
+    private int home(long fingerprint)
+    {
+        return (int) fingerprint & (slots.length - 1);
+    }
+
+    /**
+     * Returns false if the fingerprint is certainly not in the set.
+     */
+    private boolean mightContain(long fingerprint)
+    {
+        long b = Hashing.mix(fingerprint);
+        int h1 = (int) b;
+        int h2 = (int) (b >>> 32) | 1;
+        int bits = bloom.length * 64;
+        for (int i = 0; i < BLOOM_HASHES; i++)
+        {
+            int bit = Integer.remainderUnsigned(h1 + i * h2, bits);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the Bloom filter bits of a fingerprint.
+     */
+    private void setBloomBits(long fingerprint)
+    {
+        long b = Hashing.mix(fingerprint);
+        int h1 = (int) b;
+        int h2 = (int) (b >>> 32) | 1;
+        int bits = bloom.length * 64;
+        for (int i = 0; i < BLOOM_HASHES; i++)
+        {
+            int bit = Integer.remainderUnsigned(h1 + i * h2, bits);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Replaces the Bloom filter with one sized for the given number of fingerprints.
+     */
+    private void rebuildBloom(int capacity)
+    {
+        bloomCapacity = capacity;
+        bloom = new long[(int) ((long) capacity * BLOOM_BITS_PER_ENTRY / 64)];
+        for (long fingerprint : slots)
+        {
+            if (fingerprint != 0)
+            {
+                setBloomBits(fingerprint);
+            }
+        }
+    }
+
+    /**
+     * Moves the fingerprints to a table of the given length.
+     */
+    private void resize(int length)
+    {
+        long[] old = slots;
+        slots = new long[length];
+        for (long fingerprint : old)
+        {
+            if (fingerprint != 0)
+            {
+                slots[find(fingerprint)] = fingerprint;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.ntnu.bidata.prog1.model;
+
+/**
+ * 64-bit hashing of strings for the sketches and filters in this package.
+ * {@link String#hashCode()} has only 32 bits and is poorly spread, which would make
+ * the estimates of the sketches worse than documented.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+final class Hashing
+{
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing()
+    {
+    }
+
+    /**
+     * Hashes a string with 64-bit FNV-1a over its characters, followed by a final mix
+     * so every bit of the result depends on every character.
+     *
+     * @param s the string to hash.
+     * @return the hash.
+     */
+    static long hash64(String s)
+    {
+        return mix(fnv(FNV_OFFSET, s));
+    }
+
+    /**
+     * Continues a 64-bit FNV-1a hash over the characters of a string, so several strings
+     * can be hashed together without joining them first. Start with {@link #FNV_OFFSET}
+     * and {@link #mix(long)} the result.
+     *
+     * @param h the hash so far.
+     * @param s the string to hash.
+     * @return the hash including the string.
+     */
+    static long fnv(long h, String s)
+    {
+        for (int i = 0; i < s.length(); i++)
+        {
+            h ^= s.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * Spreads the bits of a value, using the finalizer of MurmurHash3.
+     *
+     * @param h the value to mix.
+     * @return the mixed value.
+     */
+    static long mix(long h)
+    {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,208 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Estimates the number of distinct strings added to it, using a fixed amount of memory.
+ * <p>
+ * The sketch has 2<sup>precision</sup> one-byte registers. Each string is hashed; the first
+ * {@code precision} bits of the hash choose a register, which keeps the longest run of leading
+ * zeros seen in the rest of the hash. The standard error of the estimate is about
+ * 1.04 / &radic;(2<sup>precision</sup>), so precision 10 uses 1 KB and is typically within 3.3 %,
+ * and precision 12 uses 4 KB and is typically within 1.6 %. Small counts are estimated by
+ * linear counting and are close to exact.
+ * </p>
+ * <p>
+ * Strings cannot be removed. Two sketches with the same precision can be merged, and the result
+ * estimates the number of distinct strings added to either of them.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class HyperLogLog
+{
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Create an empty HyperLogLog.
+     *
+     * @param precision the number of hash bits that choose a register, from 4 to 16.
+     * @throws IllegalArgumentException if the precision is outside 4 to 16.
+     */
+    public HyperLogLog(int precision)
+    {
+        if (precision < 4 || precision > 16)
+        {
+            throw new IllegalArgumentException("Precision must be from 4 to 16");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value the string to add.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public void add(String value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        addHash(Hashing.hash64(value));
+    }
+
+    /**
+     * Adds a value that has already been hashed to 64 well-mixed bits.
+     *
+     * @param hash the hash of the value.
+     */
+    void addHash(long hash)
+    {
+        int index = (int) (hash >>> (64 - precision));
+        // the bit set at the end stops the run of zeros within the bits that are left
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index])
+        {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct strings added.
+     *
+     * @return the estimate.
+     */
+    public long estimate()
+    {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers)
+        {
+            sum += 1.0 / (1L << register);
+            if (register == 0)
+            {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0)
+        {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Adds everything added to another sketch to this one.
+     *
+     * @param other the sketch to merge into this one.
+     * @throws IllegalArgumentException if the other sketch is null or has a different precision.
+     */
+    public void merge(HyperLogLog other)
+    {
+        if (other == null || other.precision != precision)
+        {
+            throw new IllegalArgumentException("Can only merge a sketch with the same precision");
+        }
+        for (int i = 0; i < registers.length; i++)
+        {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+
+    /**
+     * Writes the precision and the registers.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    void write(DataOutput out) throws IOException
+    {
+        out.writeByte(precision);
+        out.write(registers);
+    }
+
+    /**
+     * Reads a sketch written by {@link #write(DataOutput)}.
+     *
+     * @param in where to read from.
+     * @return the sketch.
+     * @throws IOException if reading fails or the precision is invalid.
+     */
+    static HyperLogLog read(DataInput in) throws IOException
+    {
+        int precision = in.readByte();
+        if (precision < 4 || precision > 16)
+        {
+            throw new IOException("Invalid precision: " + precision);
+        }
+        HyperLogLog hll = new HyperLogLog(precision);
+        in.readFully(hll.registers);
+        return hll;
+    }
+
+    /**
+     * Returns a copy that is not affected by later changes to this sketch.
+     *
+     * @return a copy of this sketch.
+     */
+    public HyperLogLog copy()
+    {
+        HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    /**
+     * Returns the precision of the sketch.
+     *
+     * @return the precision.
+     */
+    public int getPrecision()
+    {
+        return precision;
+    }
+
+    /**
+     * Returns the typical relative error of the estimate, 1.04 / &radic;(2<sup>precision</sup>).
+     *
+     * @return the standard error as a fraction of the true count.
+     */
+    public double getStandardError()
+    {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Returns the number of bytes used by the registers.
+     *
+     * @return the size in bytes.
+     */
+    public int getSize()
+    {
+        return registers.length;
+    }
+
+    /**
+     * Returns the bias correction for m registers.
+     */
+    private static double alpha(int m)
+    {
+        return switch (m)
+        {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
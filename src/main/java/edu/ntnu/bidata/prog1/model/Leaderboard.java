@@ -0,0 +1,234 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.util.*;
+
+/**
+ * Keeps a count per name, always sorted from the highest count to the lowest.
+ * Names with the same count share a bucket, and the buckets form a linked list,
+ * so adding or removing one from a count takes constant time and reading the
+ * top K names only looks at those K names.
+ *
+ * <ul>
+ * <li>Add to or subtract from the count of a name.<li>
+ * <li>Get the count of a name.<li>
+ * <li>Get the K names with the highest counts.<li>
+ *</ul>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class Leaderboard
+{
+    // The bucket each name is in
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    // The buckets with the highest and lowest counts
+    private Bucket highest;
+    private Bucket lowest;
+
+    /**
+     * All names that have the same count. Names are kept in the order they reached the count.
+     */
+    private static class Bucket
+    {
+        private final int count;
+        private final LinkedHashSet<String> names = new LinkedHashSet<>();
+        private Bucket higher;
+        private Bucket lower;
+
+        private Bucket(int count)
+        {
+            this.count = count;
+        }
+    }
+
+    /**
+     * Adds the given amount to the count of a name. A negative amount subtracts from the count.
+     * A name whose count reaches zero is removed.
+     * This takes constant time when the amount is 1 or -1.
+     *
+     * @param name  the name to count.
+     * @param delta the amount to add.
+     * @throws IllegalArgumentException if the name is null, or the count would go below zero.
+     */
+    public void add(String name, int delta)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("Name cannot be null");
+        }
+
+        Bucket current = buckets.get(name);
+        int oldCount = current == null ? 0 : current.count;
+        int newCount = oldCount + delta;
+        if (newCount < 0)
+        {
+            throw new IllegalArgumentException("Count of " + name + " cannot go below zero");
+        }
+        if (delta == 0)
+        {
+            return;
+        }
+
+        if (newCount > 0)
+        {
+            Bucket target = delta > 0 ? findOrInsertAbove(current, newCount) : findOrInsertBelow(current, newCount);
+            target.names.add(name);
+            buckets.put(name, target);
+        }
+        else
+        {
+            buckets.remove(name);
+        }
+
+        if (current != null)
+        {
+            current.names.remove(name);
+            if (current.names.isEmpty())
+            {
+                unlink(current);
+            }
+        }
+    }
+
+    /**
+     * Walks up from the given bucket (or from the bottom if it is null)
+     * to the bucket with the given count, creating it if it does not exist.
+     */
+    private Bucket findOrInsertAbove(Bucket from, int count)
+    {
+        Bucket below = from;
+        Bucket above = from == null ? lowest : from.higher;
+        while (above != null && above.count < count)
+        {
+            below = above;
+            above = above.higher;
+        }
+        if (above != null && above.count == count)
+        {
+            return above;
+        }
+        return insertBetween(below, above, count);
+    }
+
+    /**
+     * Walks down from the given bucket to the bucket with the given count, creating it if it does not exist.
+     */
+    private Bucket findOrInsertBelow(Bucket from, int count)
+    {
+        Bucket above = from;
+        Bucket below = from.lower;
+        while (below != null && below.count > count)
+        {
+            above = below;
+            below = below.lower;
+        }
+        if (below != null && below.count == count)
+        {
+            return below;
+        }
+        return insertBetween(below, above, count);
+    }
+
+    /**
+     * Creates a bucket and links it between two neighbours, either of which may be null.
+     */
+    private Bucket insertBetween(Bucket below, Bucket above, int count)
+    {
+        Bucket bucket = new Bucket(count);
+        bucket.lower = below;
+        bucket.higher = above;
+        if (below == null)
+        {
+            lowest = bucket;
+        }
+        else
+        {
+            below.higher = bucket;
+        }
+        if (above == null)
+        {
+            highest = bucket;
+        }
+        else
+        {
+            above.lower = bucket;
+        }
+        return bucket;
+    }
+
+    /**
+     * Removes an empty bucket from the list.
+     */
+    private void unlink(Bucket bucket)
+    {
+        if (bucket.lower == null)
+        {
+            lowest = bucket.higher;
+        }
+        else
+        {
+            bucket.lower.higher = bucket.higher;
+        }
+        if (bucket.higher == null)
+        {
+            highest = bucket.lower;
+        }
+        else
+        {
+            bucket.higher.lower = bucket.lower;
+        }
+    }
+
+    /**
+     * Returns the count of a name.
+     *
+     * @param name the name to look up.
+     * @return the count of the name, or 0 if it is not counted.
+     */
+    public int getCount(String name)
+    {
+        Bucket bucket = buckets.get(name);
+        return bucket == null ? 0 : bucket.count;
+    }
+
+    /**
+     * Returns the number of names with a count above zero.
+     *
+     * @return the number of names.
+     */
+    public int size()
+    {
+        return buckets.size();
+    }
+
+    /**
+     * Returns at most {@code k} names with the highest counts, highest first.
+     * Names with the same count are listed in the order they reached that count.
+     *
+     * @param k the maximum number of names to return.
+     * @return a map of names to their counts, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public Map<String, Integer> top(int k)
+    {
+        if (k < 0)
+        {
+            throw new IllegalArgumentException("K cannot be negative");
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Bucket bucket = highest; bucket != null && result.size() < k; bucket = bucket.lower)
+        {
+            for (String name : bucket.names)
+            {
+                if (result.size() >= k)
+                {
+                    break;
+                }
+                result.put(name, bucket.count);
+            }
+        }
+        return result;
+    }
+}
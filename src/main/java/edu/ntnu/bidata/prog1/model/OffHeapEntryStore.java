@@ -0,0 +1,379 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps workout entries in memory outside the Java heap, using the Foreign Function and Memory API,
+ * so the garbage collector does not have to trace millions of entry, string and timestamp objects.
+ * <p>
+ * Every entry is a fixed-width record in one memory segment. Trainer names and workouts are stored
+ * once each in a small dictionary on the heap and referred to by number. The texts are stored as UTF-8
+ * in a second segment that only grows at the end; space left by removed texts is reclaimed in place
+ * when more than half of it is unused, and the segment shrinks if the texts then fill less than a quarter of it.
+ * A WorkoutEntry object is only created when an entry is read with {@link #get(int)}.
+ * </p>
+ * <p>
+ * Each segment has its own shared arena. When a segment is outgrown it is replaced by one twice its size,
+ * and the old segment's arena is closed at once, so the store only holds its current segments. Closing a shared
+ * arena makes every thread stop briefly, but since segments double, that only happens a few dozen times
+ * over the life of a store.
+ * </p>
+ * <p>
+ * The memory is shared between threads but the store is not synchronized; WorkoutEntryBook
+ * does that. Call {@link #close()} to free the memory when the store is no longer needed.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class OffHeapEntryStore implements WorkoutEntryStore
+{
+    // Layout of one record
+    private static final long TRAINER = 0;
+    private static final long WORKOUT = 4;
+    private static final long NANO = 8;
+    private static final long TEXT_CHARS = 12;
+    private static final long EPOCH_SECOND = 16;
+    private static final long TEXT_OFFSET = 24;
+    private static final long TEXT_BYTES = 32;
+    private static final long RECORD_SIZE = 40;
+
+    private static final int INITIAL_RECORDS = 1024;
+    private static final long INITIAL_TEXT = 64 * 1024;
+
+    // Each segment with the arena that frees it when the segment is replaced
+    private Arena recordsArena;
+    private MemorySegment records;
+    private int size;
+
+    private Arena textArena;
+    private MemorySegment text;
+    private long textUsed;
+    private long textGarbage;
+
+    // Trainer names and workouts, stored once each
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    /**
+     * Create an empty OffHeapEntryStore.
+     */
+    public OffHeapEntryStore()
+    {
+        recordsArena = Arena.ofShared();
+        records = recordsArena.allocate(INITIAL_RECORDS * RECORD_SIZE, 8);
+        textArena = Arena.ofShared();
+        text = textArena.allocate(INITIAL_TEXT, 1);
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public void add(WorkoutEntry entry)
+    {
+        Objects.requireNonNull(entry);
+        if (size == Integer.MAX_VALUE)
+        {
+            throw new IllegalStateException("Store is full");
+        }
+        if ((size + 1) * RECORD_SIZE > records.byteSize())
+        {
+            growRecords();
+        }
+        write(size, entry);
+        size++;
+    }
+
+    @Override
+    public WorkoutEntry get(int index)
+    {
+        long r = record(index);
+        return new WorkoutEntry(strings.get(records.get(ValueLayout.JAVA_INT, r + TRAINER)),
+                strings.get(records.get(ValueLayout.JAVA_INT, r + WORKOUT)),
+                readText(r), timestamp(r));
+    }
+
+    @Override
+    public void set(int index, WorkoutEntry entry)
+    {
+        Objects.requireNonNull(entry);
+        long r = record(index);
+        textGarbage += records.get(ValueLayout.JAVA_INT, r + TEXT_BYTES);
+        write(index, entry);
+        compactTextIfWasteful();
+    }
+
+    @Override
+    public WorkoutEntry remove(int index)
+    {
+        WorkoutEntry removed = get(index);
+        long r = record(index);
+        textGarbage += records.get(ValueLayout.JAVA_INT, r + TEXT_BYTES);
+        MemorySegment.copy(records, r + RECORD_SIZE, records, r, (size - index - 1) * RECORD_SIZE);
+        size--;
+        compactTextIfWasteful();
+        return removed;
+    }
+
+    @Override
+    public int removeIf(int from, int to, IntPredicate test)
+    {
+        Objects.checkFromToIndex(from, to, size);
+        int kept = from;
+        for (int i = from; i < to; i++)
+        {
+            long r = i * RECORD_SIZE;
+            if (test.test(i))
+            {
+                textGarbage += records.get(ValueLayout.JAVA_INT, r + TEXT_BYTES);
+            }
+            else
+            {
+                if (kept != i)
+                {
+                    MemorySegment.copy(records, r, records, kept * RECORD_SIZE, RECORD_SIZE);
+                }
+                kept++;
+            }
+        }
+        int removed = to - kept;
+        MemorySegment.copy(records, to * RECORD_SIZE, records, kept * RECORD_SIZE, (size - to) * RECORD_SIZE);
+        size -= removed;
+        compactTextIfWasteful();
+        return removed;
+    }
+
+    @Override
+    public String getTrainerName(int index)
+    {
+        return strings.get(records.get(ValueLayout.JAVA_INT, record(index) + TRAINER));
+    }
+
+    @Override
+    public String getWorkout(int index)
+    {
+        return strings.get(records.get(ValueLayout.JAVA_INT, record(index) + WORKOUT));
+    }
+
+    @Override
+    public LocalDateTime getTimestamp(int index)
+    {
+        return timestamp(record(index));
+    }
+
+    @Override
+    public long getEpochDay(int index)
+    {
+        return Math.floorDiv(records.get(ValueLayout.JAVA_LONG, record(index) + EPOCH_SECOND), 86_400L);
+    }
+
+    @Override
+    public int getTextLength(int index)
+    {
+        return records.get(ValueLayout.JAVA_INT, record(index) + TEXT_CHARS);
+    }
+
+    /**
+     * Returns the number of bytes this store holds outside the Java heap.
+     *
+     * @return the number of bytes allocated for records and texts.
+     */
+    public long getOffHeapSize()
+    {
+        return records.byteSize() + text.byteSize();
+    }
+
+    /**
+     * Frees the memory held by the store.
+     */
+    @Override
+    public void close()
+    {
+        recordsArena.close();
+        textArena.close();
+    }
+
+    /**
+     * Returns the offset of the record at the given index.
+     */
+    private long record(int index)
+    {
+        Objects.checkIndex(index, size);
+        return index * RECORD_SIZE;
+    }
+
+    /**
+     * Writes an entry to the record at the given index, appending its text to the text segment.
+     */
+    private void write(int index, WorkoutEntry entry)
+    {
+        byte[] bytes = entry.getText().getBytes(StandardCharsets.UTF_8);
+        long offset = appendText(bytes);
+        long r = index * RECORD_SIZE;
+        LocalDateTime timestamp = entry.getTimestamp();
+        records.set(ValueLayout.JAVA_INT, r + TRAINER, stringId(entry.getTrainerName()));
+        records.set(ValueLayout.JAVA_INT, r + WORKOUT, stringId(entry.getWorkout()));
+        records.set(ValueLayout.JAVA_INT, r + NANO, timestamp.getNano());
+        records.set(ValueLayout.JAVA_INT, r + TEXT_CHARS, entry.getText().length());
+        records.set(ValueLayout.JAVA_LONG, r + EPOCH_SECOND, timestamp.toEpochSecond(ZoneOffset.UTC));
+        records.set(ValueLayout.JAVA_LONG, r + TEXT_OFFSET, offset);
+        records.set(ValueLayout.JAVA_INT, r + TEXT_BYTES, bytes.length);
+    }
+
+    /**
+     * Returns the timestamp stored in the record at the given offset.
+     */
+    private LocalDateTime timestamp(long r)
+    {
+        return LocalDateTime.ofEpochSecond(records.get(ValueLayout.JAVA_LONG, r + EPOCH_SECOND),
+                records.get(ValueLayout.JAVA_INT, r + NANO), ZoneOffset.UTC);
+    }
+
+    /**
+     * Copies the text of the record at the given offset onto the heap.
+     */
+    private String readText(long r)
+    {
+        byte[] bytes = new byte[records.get(ValueLayout.JAVA_INT, r + TEXT_BYTES)];
+        MemorySegment.copy(text, ValueLayout.JAVA_BYTE, records.get(ValueLayout.JAVA_LONG, r + TEXT_OFFSET),
+                bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of a trainer name or workout, adding it to the dictionary if it is new.
+     */
+    private int stringId(String s)
+    {
+        Integer id = stringIds.get(s);
+        if (id == null)
+        {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    /**
+     * Appends bytes to the text segment, growing it if needed.
+     *
+     * @return the offset the bytes were written to.
+     */
+    private long appendText(byte[] bytes)
+    {
+        if (textUsed + bytes.length > text.byteSize())
+        {
+            resizeText(Math.max(text.byteSize() * 2, textUsed + bytes.length));
+        }
+        long offset = textUsed;
+        MemorySegment.copy(bytes, 0, text, ValueLayout.JAVA_BYTE, offset, bytes.length);
+        textUsed += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Moves the texts of the current records together at the start of the text segment
+     * once more than half of the segment's used part is unused.
+     */
+    private void compactTextIfWasteful()
+    {
+        if (textGarbage <= INITIAL_TEXT || textGarbage * 2 <= textUsed)
+        {
+            return;
+        }
+
+        // texts are moved down in the order they are stored, so none is overwritten before it is moved
+        int[] order = textOrder();
+        long used = 0;
+        for (int i : order)
+        {
+            long r = i * RECORD_SIZE;
+            int length = records.get(ValueLayout.JAVA_INT, r + TEXT_BYTES);
+            long offset = records.get(ValueLayout.JAVA_LONG, r + TEXT_OFFSET);
+            if (offset != used)
+            {
+                MemorySegment.copy(text, offset, text, used, length);
+                records.set(ValueLayout.JAVA_LONG, r + TEXT_OFFSET, used);
+            }
+            used += length;
+        }
+        textUsed = used;
+        textGarbage = 0;
+        if (text.byteSize() > INITIAL_TEXT && textUsed * 4 < text.byteSize())
+        {
+            resizeText(Math.max(INITIAL_TEXT, textUsed * 2));
+        }
+    }
+
+    /**
+     * Moves the used part of the texts to a new segment of the given size and frees the old one.
+     */
+    private void resizeText(long bytes)
+    {
+        Arena newArena = Arena.ofShared();
+        MemorySegment newText = newArena.allocate(bytes, 1);
+        MemorySegment.copy(text, 0, newText, 0, textUsed);
+        textArena.close();
+        textArena = newArena;
+        text = newText;
+    }
+
+    /**
+     * Returns the indexes of the records in the order their texts are stored.
+     * That is the order of the records unless a text has been replaced with {@link #set(int, WorkoutEntry)}.
+     */
+    private int[] textOrder()
+    {
+        long last = -1;
+        boolean sorted = true;
+        for (int i = 0; i < size && sorted; i++)
+        {
+            long r = i * RECORD_SIZE;
+            if (records.get(ValueLayout.JAVA_INT, r + TEXT_BYTES) > 0)
+            {
+                long offset = records.get(ValueLayout.JAVA_LONG, r + TEXT_OFFSET);
+                sorted = offset > last;
+                last = offset;
+            }
+        }
+        IntStream indexes = IntStream.range(0, size);
+        if (!sorted)
+        {
+            indexes = indexes.boxed()
+                    .sorted(Comparator.comparingLong(i -> records.get(ValueLayout.JAVA_LONG, i * RECORD_SIZE + TEXT_OFFSET)))
+                    .mapToInt(Integer::intValue);
+        }
+        return indexes.toArray();
+    }
+
+    /**
+     * Doubles the size of the record segment.
+     */
+    private void growRecords()
+    {
+        Arena newArena = Arena.ofShared();
+        MemorySegment newRecords = newArena.allocate(records.byteSize() * 2, 8);
+        MemorySegment.copy(records, 0, newRecords, 0, size * RECORD_SIZE);
+        recordsArena.close();
+        recordsArena = newArena;
+        records = newRecords;
+    }
+}
@@ -0,0 +1,81 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.Period;
+
+/**
+ * Describes what happens to workout entries once they reach a certain age.
+ * Old entries can either lose their description text, or be rolled up into
+ * daily counts per trainer and workout and removed from the list of entries.
+ *
+ * @author Binit Dhungana
+ * @version 2026-10-19
+ */
+public class RetentionPolicy
+{
+    /**
+     * What to do with an entry that is older than the policy's age.
+     */
+    public enum Action
+    {
+        /** Keep the entry, but replace its description text with an empty text. */
+        DROP_TEXT,
+        /** Remove the entry and count it in the daily roll-up for its trainer and workout. */
+        ROLL_UP
+    }
+
+    private final Period age;
+    private final Action action;
+
+    /**
+     * Create an instance of RetentionPolicy.
+     *
+     * @param age    how old an entry must be before the action is applied.
+     * @param action what to do with entries older than the age.
+     * @throws IllegalArgumentException if age or action is null, or age is negative.
+     */
+    public RetentionPolicy(Period age, Action action)
+    {
+        if (age == null || action == null)
+        {
+            throw new IllegalArgumentException("Age and action cannot be null");
+        }
+        if (age.isNegative())
+        {
+            throw new IllegalArgumentException("Age cannot be negative");
+        }
+
+        this.age = age;
+        this.action = action;
+    }
+
+    /**
+     * How old an entry must be before the action is applied.
+     *
+     * @return the age of the policy.
+     */
+    public Period getAge()
+    {
+        return age;
+    }
+
+    /**
+     * What to do with entries older than the age.
+     *
+     * @return the action of the policy.
+     */
+    public Action getAction()
+    {
+        return action;
+    }
+
+    /**
+     * Returns a string representation of the retention policy.
+     *
+     * @return a string representation of the retention policy.
+     */
+    @Override
+    public String toString()
+    {
+        return action + " after " + age;
+    }
+}
@@ -0,0 +1,364 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.util.*;
+
+/**
+ * A case-insensitive trie over trainer names.
+ * Supports exact lookup, prefix completion and fuzzy lookup within a bounded edit distance,
+ * so trainers can be found without listing or scanning every registered name.
+ *
+ * <ul>
+ * <li>Add and remove trainer names.<li>
+ * <li>Find all stored spellings of a name, ignoring case.<li>
+ * <li>Complete a prefix to at most N names in alphabetical order.<li>
+ * <li>Suggest at most N names within a given edit distance, closest first.<li>
+ * <li>Find the entries of a name, ignoring case, by the ids the book gave them.<li>
+ *</ul>
+ *
+ * <p>
+ * The entry ids of a name are kept sorted in an array in the name's node, 8 bytes per entry, so the entries
+ * of a trainer are found without looking at those of other trainers. Ids must be added in increasing order.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class TrainerNameIndex
+{
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * A single node in the trie. Names ending at this node are kept in their original spelling.
+     */
+    private static class Node
+    {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private final TreeSet<String> names = new TreeSet<>();
+
+        // Ids of the entries of the names ending here, in increasing order
+        private long[] entries = NO_ENTRIES;
+        private int entryCount;
+    }
+
+    private static final long[] NO_ENTRIES = new long[0];
+
+    /**
+     * Normalises a name to the key used in the trie.
+     *
+     * @param name the name to normalise.
+     * @return the trimmed, lower case name.
+     */
+    private static String key(String name)
+    {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a trainer name to the index.
+     * If the name is already stored, no action is taken.
+     *
+     * @param name the trainer name to add.
+     * @throws IllegalArgumentException if the name is null or blank.
+     */
+    public void add(String name)
+    {
+        if (name == null || name.isBlank())
+        {
+            throw new IllegalArgumentException("Trainer name cannot be null or blank");
+        }
+
+        String key = key(name);
+        Node node = root;
+        for (int i = 0; i < key.length(); i++)
+        {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        if (node.names.add(name.trim()))
+        {
+            size++;
+        }
+    }
+
+    /**
+     * Removes a trainer name from the index.
+     *
+     * @param name the trainer name to remove.
+     * @return true if the name was stored and has been removed, false otherwise.
+     */
+    public boolean remove(String name)
+    {
+        if (name == null || name.isBlank())
+        {
+            return false;
+        }
+
+        String key = key(name);
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++)
+        {
+            path.push(node);
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null || !node.names.remove(name.trim()))
+        {
+            return false;
+        }
+        size--;
+
+        // prune nodes that no longer lead to any name
+        for (int i = key.length() - 1; i >= 0; i--)
+        {
+            Node parent = path.pop();
+            if (!node.names.isEmpty() || !node.children.isEmpty() || node.entryCount > 0)
+            {
+                break;
+            }
+            parent.children.remove(key.charAt(i));
+            node = parent;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the id of an entry of a name that is in the index. Ids must be added in increasing order.
+     *
+     * @param name the trainer name of the entry.
+     * @param id   the id of the entry, larger than every id added before.
+     * @throws IllegalArgumentException if the name is not in the index, or the id is not larger than the last one.
+     */
+    public void addEntry(String name, long id)
+    {
+        Node node = name == null || name.isBlank() ? null : descend(key(name));
+        if (node == null || node.names.isEmpty())
+        {
+            throw new IllegalArgumentException("Trainer " + name + " is not in the index");
+        }
+        if (node.entryCount > 0 && node.entries[node.entryCount - 1] >= id)
+        {
+            throw new IllegalArgumentException("Entry ids must be added in increasing order");
+        }
+        if (node.entryCount == node.entries.length)
+        {
+            node.entries = Arrays.copyOf(node.entries, Math.max(4, node.entryCount * 2));
+        }
+        node.entries[node.entryCount++] = id;
+    }
+
+    /**
+     * Removes the id of an entry of a name.
+     *
+     * @param name the trainer name of the entry.
+     * @param id   the id of the entry.
+     * @return true if the id was found and removed.
+     */
+    public boolean removeEntry(String name, long id)
+    {
+        Node node = name == null || name.isBlank() ? null : descend(key(name));
+        int i = node == null ? -1 : Arrays.binarySearch(node.entries, 0, node.entryCount, id);
+        if (i < 0)
+        {
+            return false;
+        }
+        System.arraycopy(node.entries, i + 1, node.entries, i, node.entryCount - i - 1);
+        node.entryCount--;
+        return true;
+    }
+
+    /**
+     * Returns the ids of the entries of a name, ignoring case and surrounding whitespace.
+     *
+     * @param name the name to look up.
+     * @return the ids in increasing order, or an empty array.
+     */
+    public long[] findEntries(String name)
+    {
+        Node node = name == null || name.isBlank() ? null : descend(key(name));
+        return node == null ? NO_ENTRIES : Arrays.copyOf(node.entries, node.entryCount);
+    }
+
+    /**
+     * Forgets the entry ids of every name, keeping the names.
+     */
+    public void clearEntries()
+    {
+        Deque<Node> nodes = new ArrayDeque<>();
+        nodes.push(root);
+        while (!nodes.isEmpty())
+        {
+            Node node = nodes.pop();
+            node.entries = NO_ENTRIES;
+            node.entryCount = 0;
+            node.children.values().forEach(nodes::push);
+        }
+    }
+
+    /**
+     * Returns the number of names in the index.
+     *
+     * @return the number of names in the index.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Finds every stored spelling of a name, ignoring case and surrounding whitespace.
+     *
+     * @param name the name to look up.
+     * @return the stored names equal to the given name ignoring case, or an empty list.
+     */
+    public List<String> find(String name)
+    {
+        if (name == null || name.isBlank())
+        {
+            return List.of();
+        }
+
+        Node node = descend(key(name));
+        return node == null ? List.of() : new ArrayList<>(node.names);
+    }
+
+    /**
+     * Returns at most {@code limit} names starting with the given prefix, ignoring case,
+     * in alphabetical order. A blank prefix matches every name.
+     *
+     * @param prefix the prefix to complete.
+     * @param limit  the maximum number of names to return.
+     * @return the matching names.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public List<String> complete(String prefix, int limit)
+    {
+        if (limit < 0)
+        {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+
+        Node node = descend(prefix == null ? "" : key(prefix));
+        List<String> result = new ArrayList<>();
+        if (node != null)
+        {
+            collect(node, result, limit);
+        }
+        return result;
+    }
+
+    /**
+     * Returns at most {@code limit} names within {@code maxEdits} insertions, deletions or
+     * substitutions of the given name, ignoring case. Closest names come first,
+     * ties are broken alphabetically.
+     *
+     * @param name     the (possibly misspelled) name to look up.
+     * @param maxEdits the largest edit distance to accept.
+     * @param limit    the maximum number of names to return.
+     * @return the matching names.
+     * @throws IllegalArgumentException if maxEdits or limit is negative.
+     */
+    public List<String> suggest(String name, int maxEdits, int limit)
+    {
+        if (maxEdits < 0 || limit < 0)
+        {
+            throw new IllegalArgumentException("Edit distance and limit cannot be negative");
+        }
+        if (name == null || name.isBlank())
+        {
+            return List.of();
+        }
+
+        String key = key(name);
+        int[] firstRow = new int[key.length() + 1];
+        for (int i = 0; i < firstRow.length; i++)
+        {
+            firstRow[i] = i;
+        }
+
+        List<Map.Entry<String, Integer>> matches = new ArrayList<>();
+        for (Map.Entry<Character, Node> child : root.children.entrySet())
+        {
+            suggest(child.getValue(), child.getKey(), key, firstRow, maxEdits, matches);
+        }
+
+        matches.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++)
+        {
+            result.add(matches.get(i).getKey());
+        }
+        return result;
+    }
+
+    /**
+     * Walks the trie computing one row of the Levenshtein matrix per node,
+     * skipping subtrees that can no longer come within the allowed distance.
+     */
+    private void suggest(Node node, char c, String key, int[] previousRow, int maxEdits,
+                         List<Map.Entry<String, Integer>> matches)
+    {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int best = row[0];
+        for (int i = 1; i < row.length; i++)
+        {
+            int cost = key.charAt(i - 1) == c ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + cost);
+            best = Math.min(best, row[i]);
+        }
+
+        int distance = row[row.length - 1];
+        if (distance <= maxEdits)
+        {
+            for (String name : node.names)
+            {
+                matches.add(Map.entry(name, distance));
+            }
+        }
+        if (best <= maxEdits)
+        {
+            for (Map.Entry<Character, Node> child : node.children.entrySet())
+            {
+                suggest(child.getValue(), child.getKey(), key, row, maxEdits, matches);
+            }
+        }
+    }
+
+    /**
+     * Follows the given key from the root.
+     *
+     * @return the node at the end of the key, or null if there is none.
+     */
+    private Node descend(String key)
+    {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++)
+        {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Adds names below the given node to the result in alphabetical order until it holds limit names.
+     */
+    private void collect(Node node, List<String> result, int limit)
+    {
+        for (String name : node.names)
+        {
+            if (result.size() >= limit)
+            {
+                return;
+            }
+            result.add(name);
+        }
+        for (Node child : node.children.values())
+        {
+            if (result.size() >= limit)
+            {
+                return;
+            }
+            collect(child, result, limit);
+        }
+    }
+}
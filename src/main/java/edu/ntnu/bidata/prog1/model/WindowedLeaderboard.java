@@ -0,0 +1,160 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * A leaderboard that only counts the last few days, for example the most active trainers of the last week.
+ * Counts are kept per day, and when the window moves forward the days that leave it are subtracted
+ * and the days that enter it are added, so every day is handled once no matter how often the top is read.
+ * <p>
+ * The window ends on the clock's current day and never moves back. Every change and every read first moves it
+ * up to that day, so only the days from the start of the window onwards are kept, and days before it are dropped
+ * as soon as they leave it. Days after the clock's current day are kept until the window reaches them.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WindowedLeaderboard
+{
+    private final int days;
+    private final Clock clock;
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    // Counts per day from the start of the window onwards
+    private final TreeMap<LocalDate, Map<String, Integer>> dayCounts = new TreeMap<>();
+
+    // The last day of the window, or null before anything has been counted or read
+    private LocalDate today;
+
+    /**
+     * Create an instance of WindowedLeaderboard whose window follows the system clock.
+     *
+     * @param days the number of days in the window, including today.
+     * @throws IllegalArgumentException if days is not positive.
+     */
+    public WindowedLeaderboard(int days)
+    {
+        this(days, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Create an instance of WindowedLeaderboard whose window follows the given clock.
+     *
+     * @param days  the number of days in the window, including today.
+     * @param clock the clock that gives the current day.
+     * @throws IllegalArgumentException if days is not positive, or the clock is null.
+     */
+    public WindowedLeaderboard(int days, Clock clock)
+    {
+        if (days <= 0)
+        {
+            throw new IllegalArgumentException("Days must be positive");
+        }
+        if (clock == null)
+        {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.days = days;
+        this.clock = clock;
+    }
+
+    /**
+     * Adds the given amount to the count of a name on a day. A negative amount subtracts from the count.
+     * Days before the window are ignored, since they can never be part of it again.
+     *
+     * @param day   the day to count on.
+     * @param name  the name to count.
+     * @param delta the amount to add.
+     * @throws IllegalArgumentException if the day or name is null, or the name's count on the day would go below zero.
+     */
+    public void add(LocalDate day, String name, int delta)
+    {
+        if (day == null || name == null)
+        {
+            throw new IllegalArgumentException("Day and name cannot be null");
+        }
+        moveTo(LocalDate.now(clock));
+        if (day.isBefore(windowStart(today)))
+        {
+            return;
+        }
+
+        Map<String, Integer> counts = dayCounts.computeIfAbsent(day, d -> new HashMap<>());
+        int count = counts.getOrDefault(name, 0) + delta;
+        if (count < 0)
+        {
+            throw new IllegalArgumentException("Count of " + name + " on " + day + " cannot go below zero");
+        }
+        if (count == 0)
+        {
+            counts.remove(name);
+        }
+        else
+        {
+            counts.put(name, count);
+        }
+        if (!day.isAfter(today))
+        {
+            leaderboard.add(name, delta);
+        }
+    }
+
+    /**
+     * Returns at most {@code k} names with the highest counts in the window ending on the clock's current day,
+     * highest first.
+     *
+     * @param k the maximum number of names to return.
+     * @return a map of names to their counts in the window, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public Map<String, Integer> top(int k)
+    {
+        moveTo(LocalDate.now(clock));
+        return leaderboard.top(k);
+    }
+
+    /**
+     * Moves the end of the window forward to the given day, dropping the days that leave it.
+     */
+    private void moveTo(LocalDate day)
+    {
+        if (today != null && !day.isAfter(today))
+        {
+            return;
+        }
+
+        LocalDate start = windowStart(day);
+        SortedMap<LocalDate, Map<String, Integer>> leaving = dayCounts.headMap(start);
+        if (today != null)
+        {
+            // days that were in the old window but are not in the new one
+            leaving.tailMap(windowStart(today)).values().forEach(counts -> apply(counts, -1));
+        }
+        leaving.clear();
+
+        SortedMap<LocalDate, Map<String, Integer>> entering = today == null
+                ? dayCounts.headMap(day, true)
+                : dayCounts.subMap(today, false, day, true);
+        entering.values().forEach(counts -> apply(counts, 1));
+        today = day;
+    }
+
+    /**
+     * Adds or subtracts one day's counts to or from the leaderboard.
+     */
+    private void apply(Map<String, Integer> counts, int sign)
+    {
+        counts.forEach((name, count) -> leaderboard.add(name, sign * count));
+    }
+
+    /**
+     * Returns the first day of the window that ends on the given day.
+     */
+    private LocalDate windowStart(LocalDate end)
+    {
+        return end.minusDays(days - 1L);
+    }
+}
@@ -1,6 +1,7 @@
 package edu.ntnu.bidata.prog1.model;
 
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 /**
  * Represents a workout entry with user, workout type, text description, and date and time.
@@ -15,6 +16,9 @@ public class WorkoutEntry
     private final String text;
     private final LocalDateTime timestamp;
 
+    // Loads the text when it is needed, for entries read from compressed storage; null otherwise
+    private final Supplier<String> textLoader;
+
   /**
      * Create an instance of WorkoutEntry.
      *
@@ -43,6 +47,43 @@ public class WorkoutEntry
         this.workout = workout;
         this.text = text;
         this.timestamp = (timestamp == null) ? LocalDateTime.now() : timestamp;
+        this.textLoader = null;
+    }
+
+    /**
+     * Create an instance of WorkoutEntry whose text is only loaded when it is asked for.
+     * Used by stores that keep the text compressed.
+     *
+     * @param trainerName the name of the user who made the workout.
+     * @param workout     the type of workout.
+     * @param textLoader  loads the description of the workout.
+     * @param timestamp   the date and time when the workout was logged.
+     * @return the workout entry.
+     */
+    static WorkoutEntry withLazyText(String trainerName, String workout, Supplier<String> textLoader,
+                                     LocalDateTime timestamp)
+    {
+        return new WorkoutEntry(trainerName, workout, timestamp, textLoader);
+    }
+
+    private WorkoutEntry(String trainerName, String workout, LocalDateTime timestamp, Supplier<String> textLoader)
+    {
+        this.trainerName = trainerName;
+        this.workout = workout;
+        this.text = null;
+        this.timestamp = timestamp;
+        this.textLoader = textLoader;
+    }
+
+    /**
+     * Returns this entry if its text is already loaded, or else a copy with the text loaded,
+     * so an entry that is kept for a long time does not keep the store's compressed blocks reachable.
+     *
+     * @return an entry with the same fields whose text is loaded.
+     */
+    WorkoutEntry withLoadedText()
+    {
+        return textLoader == null ? this : new WorkoutEntry(trainerName, workout, textLoader.get(), timestamp);
     }
 
     /**
@@ -72,7 +113,7 @@ public class WorkoutEntry
      */
     public String getText()
     {
-        return text;
+        return textLoader == null ? text : textLoader.get();
     }
 
 
@@ -97,7 +138,7 @@ public class WorkoutEntry
         return "Trainer: " + trainerName
                 + "\nTitle: " + workout
                 + "\nWhen: " + timestamp
-                + "\nText: " + text
+                + "\nText: " + getText()
                 + "\n----------------------------------------------------------------------------";
 
     }
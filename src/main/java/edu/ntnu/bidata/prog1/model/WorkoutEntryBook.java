@@ -1,7 +1,15 @@
 package edu.ntnu.bidata.prog1.model;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * Represents a collection of workout entries which allows adding,searching, and removing workout entries.
@@ -10,24 +18,154 @@ import java.util.*;
  *
  * <ul>
  * <li>Add a workout entry to the collection.<li>
+ * <li>Add a workout entry only if the same entry is not already in the collection.<li>
  * <li>Find workout entries by trainer name.<li>
  * <li>Find workout entries by workout type.<li>
  * <li>Find workout entries by date.<li>
  * <li>Delete a workout entry by index.<li>
  * <li>Get the number of workout entries in the collection.<li>
  * <li>Get an iterator over the workout entries.<li>
+ * <li>Drop the text of old entries, or roll them up into daily counts.<li>
+ * <li>Get the most active trainers and most popular workouts, overall or in the last week.<li>
+ * <li>Get a trainer's personal record and progression in each workout.<li>
+ * <li>Estimate distinct workouts per trainer, distinct trainers per day and the most frequent pairs.<li>
+ * <li>Search the collection as it was at an earlier version or time.<li>
  *</ul>
  *
+ * <p>
+ * All methods are synchronized, so retention can run on a background thread
+ * while entries are added and searched.
+ * </p>
+ * <p>
+ * The entries are kept in a {@link WorkoutEntryStore}. By default this is an ArrayList on the heap;
+ * an {@link OffHeapEntryStore} can be given instead to keep them outside the heap.
+ * </p>
+ * <p>
+ * Every addition and deletion creates a new version of the book, and deleted entries are kept for a while,
+ * so searches and statistics can be run as of an earlier version or time.
+ * See {@link #findByTrainerName(String, long)} and {@link #compactHistory(LocalDateTime)}.
+ * </p>
+ *
  * @version 2025-09-29
  * @author Binit Dhungana
  */
 public class WorkoutEntryBook
 {
-    private final List<WorkoutEntry> entries = new ArrayList<>();
+    private final WorkoutEntryStore entries;
+
+    // Versions of the book, with the entries that have been deleted
+    private final Clock clock;
+    private final WorkoutEntryHistory history;
+    private Duration historyRetention = DEFAULT_HISTORY_RETENTION;
 
     // Map to keep track of trainer statistics
     private final LinkedHashMap<String, Integer> trainerCounts = new LinkedHashMap<>();
 
+    // Index over trainer names for prefix and fuzzy lookup
+    private final TrainerNameIndex trainerIndex = new TrainerNameIndex();
+
+    // Rough heap footprint of the entries and trainers, kept up to date on every change
+    private long estimatedSize;
+
+    // Daily counts per trainer and workout of entries that have been rolled up
+    private final Map<RollUpKey, Integer> rollUps = new HashMap<>();
+    private int rolledUpEntries;
+
+    private final List<RetentionPolicy> retentionPolicies = new ArrayList<>();
+
+    // Leaderboards of entries per trainer and per workout, updated on every change
+    private final Leaderboard trainerLeaderboard = new Leaderboard();
+    private final Leaderboard workoutLeaderboard = new Leaderboard();
+    private final WindowedLeaderboard recentTrainerLeaderboard;
+    private final WindowedLeaderboard recentWorkoutLeaderboard;
+
+    // Fingerprints of the entries, to recognise resubmitted entries
+    private final EntryFingerprintSet fingerprints = new EntryFingerprintSet();
+    private long duplicates;
+
+    // Approximate distinct counts and pair counts, updated alongside trainerCounts
+    private final WorkoutEntrySketches sketches = new WorkoutEntrySketches();
+
+    // Values worked out once per entry, in the same order as the store
+    private final EntryColumns columns = new EntryColumns();
+
+    // Progression per trainer and workout, both in lower case
+    private final Map<String, Map<String, WorkoutProgression>> progressions = new HashMap<>();
+
+    // Number of days, including today, counted by the recent leaderboards
+    private static final int LEADERBOARD_DAYS = 7;
+
+    // Approximate bytes used per entry, trainer and roll-up, not counting the characters of their strings
+    private static final int ENTRY_OVERHEAD = 232;
+    private static final int TRAINER_OVERHEAD = 160;
+    private static final int ROLL_UP_OVERHEAD = 120;
+
+    // How long deleted entries and old versions are kept by default
+    private static final Duration DEFAULT_HISTORY_RETENTION = Duration.ofDays(30);
+
+    // How many entries retention looks at before letting other threads use the book
+    private static final int RETENTION_BATCH = 4096;
+
+    private record RollUpKey(LocalDate date, String trainer, String workout)
+    {
+    }
+
+    /**
+     * Constructs an empty WorkoutEntryBook that keeps its entries in an ArrayList.
+     */
+    public WorkoutEntryBook()
+    {
+        this(new ArrayListEntryStore());
+    }
+
+    /**
+     * Constructs an empty WorkoutEntryBook that keeps its entries in the given store.
+     * The caller remains responsible for closing the store.
+     *
+     * @param store the empty store to keep the entries in.
+     * @throws IllegalArgumentException if the store is null or not empty.
+     */
+    public WorkoutEntryBook(WorkoutEntryStore store)
+    {
+        this(store, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an empty WorkoutEntryBook that keeps its entries in the given store,
+     * and uses the given clock for the times of its versions.
+     * The caller remains responsible for closing the store.
+     *
+     * @param store the empty store to keep the entries in.
+     * @param clock the clock to read the time of each change from.
+     * @throws IllegalArgumentException if the store or clock is null, or the store is not empty.
+     */
+    public WorkoutEntryBook(WorkoutEntryStore store, Clock clock)
+    {
+        if (store == null || store.size() != 0)
+        {
+            throw new IllegalArgumentException("Store must be empty and not null");
+        }
+        if (clock == null)
+        {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.entries = store;
+        this.clock = clock;
+        this.history = new WorkoutEntryHistory(store, LocalDateTime.now(clock));
+        this.recentTrainerLeaderboard = new WindowedLeaderboard(LEADERBOARD_DAYS, clock);
+        this.recentWorkoutLeaderboard = new WindowedLeaderboard(LEADERBOARD_DAYS, clock);
+    }
+
+    /**
+     * Returns the clock the book reads the time of each change from.
+     *
+     * @return the book's clock.
+     */
+    public Clock getClock()
+    {
+        return clock;
+    }
+
     /**
      * Registers a new trainer in the register.
      * If the trainer already exists, no action is taken.
@@ -35,29 +173,82 @@ public class WorkoutEntryBook
      * @param name the name of the trainer to be registered.
      * @throws IllegalArgumentException if the name is null or blank.
      */
-    public void registerTrainer(String name)
+    public synchronized void registerTrainer(String name)
     {
         if (name == null || name.isBlank())
         {
             throw new IllegalArgumentException("Trainer name cannot be null or blank");
         }
 
-        String key = name.trim();
-        trainerCounts.putIfAbsent(key, 0);
+        countTrainer(name.trim(), 0);
+    }
+
+    /**
+     * Adds to a trainer's count, registering the trainer first if needed.
+     * This is the only place a trainer's overhead is added to the estimated size.
+     */
+    private void countTrainer(String trainer, int count)
+    {
+        if (!trainerCounts.containsKey(trainer))
+        {
+            trainerIndex.add(trainer);
+            estimatedSize += TRAINER_OVERHEAD + trainer.length();
+        }
+        trainerCounts.merge(trainer, count, Integer::sum);
     }
 
     /**
      * Returns a list of all registered trainers.
      */
-    public List<String> getTrainers()
+    public synchronized List<String> getTrainers()
     {
         return new ArrayList<>(trainerCounts.keySet());
     }
 
+    /**
+     * Returns the number of registered trainers.
+     *
+     * @return the number of registered trainers.
+     */
+    public synchronized int getNumberOfTrainers()
+    {
+        return trainerCounts.size();
+    }
+
+    /**
+     * Returns at most {@code limit} registered trainers whose name starts with the given prefix,
+     * ignoring case, in alphabetical order. A blank prefix matches every trainer.
+     *
+     * @param prefix the start of the trainer name.
+     * @param limit  the maximum number of trainers to return.
+     * @return the matching trainer names.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public synchronized List<String> completeTrainerName(String prefix, int limit)
+    {
+        return trainerIndex.complete(prefix, limit);
+    }
+
+    /**
+     * Returns at most {@code limit} registered trainers whose name is within {@code maxEdits}
+     * typing mistakes of the given name, ignoring case. Closest names come first.
+     *
+     * @param name     the (possibly misspelled) trainer name.
+     * @param maxEdits the largest number of inserted, deleted or changed characters to accept.
+     * @param limit    the maximum number of trainers to return.
+     * @return the matching trainer names.
+     * @throws IllegalArgumentException if maxEdits or limit is negative.
+     */
+    public synchronized List<String> suggestTrainerNames(String name, int maxEdits, int limit)
+    {
+        return trainerIndex.suggest(name, maxEdits, limit);
+    }
+
     /**
      * Returns a map of trainer names to their corresponding workout entry counts.
+     * Entries that have been rolled up are still counted.
      */
-    public Map<String, Integer> getTrainerStats()
+    public synchronized Map<String, Integer> getTrainerStats()
     {
         return new LinkedHashMap<>(trainerCounts);
     }
@@ -69,41 +260,291 @@ public class WorkoutEntryBook
      * @param entry the workout entry to be added in the collection.
      * @throws IllegalArgumentException if the entry is null.
      */
-    public void addEntry(WorkoutEntry entry)
+    public synchronized void addEntry(WorkoutEntry entry)
     {
         if (entry == null)
         {
             throw new IllegalArgumentException("Workout entry cannot be null");
         }
-        
+        add(entry, EntryFingerprintSet.fingerprint(entry));
+    }
+
+    /**
+     * Adds an entry whose fingerprint has been computed.
+     */
+    private void add(WorkoutEntry entry, long fingerprint)
+    {
         entries.add(entry);
+        history.added(LocalDateTime.now(clock));
+        estimatedSize += estimateSize(entry);
+        fingerprints.add(fingerprint);
+
+        String trainer = entry.getTrainerName().trim();
+        countTrainer(trainer, 1);
+        trainerIndex.addEntry(trainer, history.getAddedVersion(entries.size() - 1));
+        sketches.add(trainer, entry.getWorkout(), entry.getTimestamp().toLocalDate(), 1);
+        updateLeaderboards(entry, 1);
+        double load = WorkoutProgression.parseLoad(entry.getText());
+        columns.add(fingerprint, load);
+        progressionFor(entry.getTrainerName(), entry.getWorkout()).add(load, entry.getTimestamp());
+    }
+
+    /**
+     * Adds a workout entry unless an entry with the same trainer, workout, timestamp and text
+     * is already in the collection, so a submission that is retried or imported twice is only added once.
+     * The check takes constant time and does not look at the other entries.
+     * Entries that retention has rolled up or dropped the text of are still recognised,
+     * even after an entry without its text is deleted or the book is saved and loaded.
+     *
+     * @param entry the workout entry to be added in the collection.
+     * @return true if the entry was added, false if it was a duplicate.
+     * @throws IllegalArgumentException if the entry is null.
+     */
+    public synchronized boolean addEntryIfNew(WorkoutEntry entry)
+    {
+        if (entry == null)
+        {
+            throw new IllegalArgumentException("Workout entry cannot be null");
+        }
+        long fingerprint = EntryFingerprintSet.fingerprint(entry);
+        if (fingerprints.contains(fingerprint))
+        {
+            duplicates++;
+            return false;
+        }
+        add(entry, fingerprint);
+        return true;
+    }
+
+    /**
+     * Returns the number of duplicate entries {@link #addEntryIfNew(WorkoutEntry)} has turned away.
+     *
+     * @return the number of duplicates.
+     */
+    public synchronized long getNumberOfDuplicates()
+    {
+        return duplicates;
+    }
+
+    /**
+     * Returns the progression for a trainer and workout, creating it if needed.
+     */
+    private WorkoutProgression progressionFor(String trainer, String workout)
+    {
+        return progressions.computeIfAbsent(key(trainer), t -> new LinkedHashMap<>())
+                .computeIfAbsent(key(workout), w -> new WorkoutProgression(trainer.trim(), workout.trim()));
+    }
+
+    /**
+     * Normalises a trainer name or workout for case-insensitive lookup.
+     */
+    private static String key(String name)
+    {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Removes a deleted entry's load from its trainer's progression in the workout,
+     * and drops the progression when no entries are left.
+     */
+    private void removeFromProgression(String trainer, String workout, double load, LocalDateTime timestamp)
+    {
+        Map<String, WorkoutProgression> byWorkout = progressions.get(key(trainer));
+        WorkoutProgression progression = byWorkout == null ? null : byWorkout.get(key(workout));
+        if (progression == null)
+        {
+            return;
+        }
+        progression.remove(load, timestamp);
+        if (progression.getSessions() == 0)
+        {
+            byWorkout.remove(key(workout));
+            if (byWorkout.isEmpty())
+            {
+                progressions.remove(key(trainer));
+            }
+        }
+    }
+
+    /**
+     * Returns a trainer's progression in a workout: personal record, recent loads, moving average and trend.
+     * Names are matched ignoring case. This does not look at any entries, so it takes constant time.
+     *
+     * @param trainerName the trainer.
+     * @param workout     the workout.
+     * @return a copy of the progression, or null if the trainer has no entries for the workout.
+     */
+    public synchronized WorkoutProgression getProgression(String trainerName, String workout)
+    {
+        if (trainerName == null || workout == null)
+        {
+            return null;
+        }
+        WorkoutProgression progression = progressions.getOrDefault(key(trainerName), Map.of()).get(key(workout));
+        return progression == null ? null : progression.copy();
+    }
 
+    /**
+     * Returns a trainer's progression in every workout they have entries for, in the order the workouts were first logged.
+     *
+     * @param trainerName the trainer, matched ignoring case.
+     * @return a list of copies of the progressions, empty if the trainer has no entries.
+     */
+    public synchronized List<WorkoutProgression> getProgressions(String trainerName)
+    {
+        if (trainerName == null || trainerName.isBlank())
+        {
+            return List.of();
+        }
+        List<WorkoutProgression> result = new ArrayList<>();
+        progressions.getOrDefault(key(trainerName), Map.of()).values().forEach(p -> result.add(p.copy()));
+        return result;
+    }
+
+    /**
+     * Adds an entry to, or with a negative delta removes it from, the leaderboards.
+     */
+    private void updateLeaderboards(WorkoutEntry entry, int delta)
+    {
         String trainer = entry.getTrainerName().trim();
-        trainerCounts.put(trainer, trainerCounts.getOrDefault(trainer, 0) + 1);
+        String workout = entry.getWorkout().trim();
+        LocalDate day = entry.getTimestamp().toLocalDate();
+        trainerLeaderboard.add(trainer, delta);
+        workoutLeaderboard.add(workout, delta);
+        recentTrainerLeaderboard.add(day, trainer, delta);
+        recentWorkoutLeaderboard.add(day, workout, delta);
+    }
+
+    /**
+     * Returns at most {@code k} trainers with the most entries, most entries first.
+     * Entries that have been rolled up are still counted.
+     *
+     * @param k the maximum number of trainers to return.
+     * @return a map of trainer names to their number of entries, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public synchronized Map<String, Integer> getTopTrainers(int k)
+    {
+        return trainerLeaderboard.top(k);
+    }
+
+    /**
+     * Returns at most {@code k} workouts with the most entries, most entries first.
+     * Entries that have been rolled up are still counted.
+     *
+     * @param k the maximum number of workouts to return.
+     * @return a map of workouts to their number of entries, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public synchronized Map<String, Integer> getTopWorkouts(int k)
+    {
+        return workoutLeaderboard.top(k);
+    }
+
+    /**
+     * Returns at most {@code k} trainers with the most entries in the last seven days up to and including
+     * today by the book's clock.
+     *
+     * @param k the maximum number of trainers to return.
+     * @return a map of trainer names to their number of entries in the last week, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public synchronized Map<String, Integer> getTopTrainersLastWeek(int k)
+    {
+        return recentTrainerLeaderboard.top(k);
+    }
+
+    /**
+     * Returns at most {@code k} workouts with the most entries in the last seven days up to and including
+     * today by the book's clock.
+     *
+     * @param k the maximum number of workouts to return.
+     * @return a map of workouts to their number of entries in the last week, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public synchronized Map<String, Integer> getTopWorkoutsLastWeek(int k)
+    {
+        return recentWorkoutLeaderboard.top(k);
+    }
+
+    /**
+     * Returns the estimated number of distinct workouts a trainer has entries for, typically within 3.3 %.
+     * Workouts of deleted entries are still counted.
+     *
+     * @param trainerName the trainer, matched ignoring case.
+     * @return the estimate, or 0 if the trainer has no entries.
+     */
+    public synchronized long estimateDistinctWorkouts(String trainerName)
+    {
+        return sketches.estimateDistinctWorkouts(trainerName);
+    }
+
+    /**
+     * Returns the estimated number of distinct trainers with entries on a day, typically within 3.3 %.
+     * Trainers of deleted entries are still counted.
+     *
+     * @param date the day.
+     * @return the estimate, or 0 if there are no entries on the day.
+     */
+    public synchronized long estimateDistinctTrainers(LocalDate date)
+    {
+        return sketches.estimateDistinctTrainers(date);
+    }
+
+    /**
+     * Returns the estimated number of entries of a trainer doing a workout.
+     * It is never below the true number, and rarely more than 0.13 % of all entries above it.
+     *
+     * @param trainerName the trainer, matched ignoring case.
+     * @param workout     the workout, matched ignoring case.
+     * @return the estimate.
+     */
+    public synchronized long estimatePairCount(String trainerName, String workout)
+    {
+        return sketches.estimatePairCount(trainerName, workout);
+    }
+
+    /**
+     * Returns at most {@code k} of the most frequent trainer and workout pairs, with their estimated
+     * number of entries, most frequent first.
+     *
+     * @param k the maximum number of pairs to return.
+     * @return a map of "trainer - workout" to the estimated number of entries, in order.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public synchronized Map<String, Long> getFrequentPairs(int k)
+    {
+        return sketches.getFrequentPairs(k);
+    }
+
+    /**
+     * Returns a copy of the sketches behind the estimates, which can be merged with those of other books.
+     *
+     * @return a copy of the sketches.
+     */
+    public synchronized WorkoutEntrySketches getSketches()
+    {
+        return sketches.copy();
     }
 
     /**
      * Finds and returns a list of workout entries for a specific trainer name.
+     * The trainer name index holds the entries of each name, so only the trainer's own entries are looked at.
      *
      * @param trainerName the trainer name to search for.
      * @return a list of workout entries for the specified trainer name.
      */
-    public List<WorkoutEntry> findByTrainerName(String trainerName)
+    public synchronized List<WorkoutEntry> findByTrainerName(String trainerName)
     {
         if (trainerName == null || trainerName.isBlank())
         {
             return List.of(); // Return an empty list if invalid input
         }
 
-        String needle = trainerName.trim();
         List<WorkoutEntry> result = new ArrayList<>();
-
-        for (WorkoutEntry e : entries)
+        for (long id : trainerIndex.findEntries(trainerName))
         {
-            if (e.getTrainerName().equalsIgnoreCase(needle))
-            {
-                result.add(e);
-            }
+            result.add(entries.get(history.indexOfAdded(id)));
         }
         return result;
     }
@@ -114,7 +555,7 @@ public class WorkoutEntryBook
      * @param workout the workout type to search for.
      * @return a list of workout entries for the specified workout type.
      */
-    public List<WorkoutEntry> findByWorkout(String workout)
+    public synchronized List<WorkoutEntry> findByWorkout(String workout)
     {
         if (workout == null || workout.isBlank())
         {
@@ -124,11 +565,11 @@ public class WorkoutEntryBook
         String needle = workout.trim();
         List<WorkoutEntry> result = new ArrayList<>();
 
-        for (WorkoutEntry e : entries)
+        for (int i = 0; i < entries.size(); i++)
         {
-            if (e.getWorkout().equalsIgnoreCase(needle))
+            if (entries.getWorkout(i).equalsIgnoreCase(needle))
             {
-                result.add(e);
+                result.add(entries.get(i));
             }
         }
         return result;
@@ -141,18 +582,19 @@ public class WorkoutEntryBook
      * @return a list of workout entries for the specified date.
      * @throws IllegalArgumentException if the date is null.
      */
-    public List<WorkoutEntry> findByDate(LocalDate date)
+    public synchronized List<WorkoutEntry> findByDate(LocalDate date)
     {
         if (date == null)
         {
             throw new IllegalArgumentException("Date cannot be null");
         }
+        long day = date.toEpochDay();
         List<WorkoutEntry> result = new ArrayList<>();
-        for (WorkoutEntry e : entries)
+        for (int i = 0; i < entries.size(); i++)
         {
-            if (e.getTimestamp().toLocalDate().equals(date))
+            if (entries.getEpochDay(i) == day)
             {
-                result.add(e);
+                result.add(entries.get(i));
             }
         }
         return result;
@@ -166,7 +608,7 @@ public class WorkoutEntryBook
      * @return a list of workout entries between the two dates
      * @throws IllegalArgumentException if either date is null
      */
-    public List<WorkoutEntry> findByDateRange(LocalDate from, LocalDate to)
+    public synchronized List<WorkoutEntry> findByDateRange(LocalDate from, LocalDate to)
     {
         if (from == null || to == null) {
             throw new IllegalArgumentException("Dates cannot be null");
@@ -176,11 +618,13 @@ public class WorkoutEntryBook
             return List.of();
         }
 
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
         List<WorkoutEntry> result = new ArrayList<>();
-        for (WorkoutEntry e : entries) {
-            LocalDate d = e.getTimestamp().toLocalDate();
-            if ((d.isEqual(from) || d.isAfter(from)) && (d.isEqual(to) || d.isBefore(to))) {
-                result.add(e);
+        for (int i = 0; i < entries.size(); i++) {
+            long d = entries.getEpochDay(i);
+            if (d >= first && d <= last) {
+                result.add(entries.get(i));
             }
         }
         return result;
@@ -188,45 +632,544 @@ public class WorkoutEntryBook
 
     /**
      * Deletes a workout entry by its index in the collection.
+     * The entry is kept for searches of earlier versions until the history is compacted.
      *
      * @param index the index of the workout entry to be deleted.
      * @return true if the entry was successfully deleted, false if the index is invalid.
      */
-    public boolean deleteByIndex(int index)
+    public synchronized boolean deleteByIndex(int index)
     {
         if (index < 0 || index >= entries.size()) {
             return false;
         }
+        // the entry's size stays counted while it is kept as a tombstone
+        long fingerprint = columns.getFingerprint(index);
+        double load = columns.getLoad(index);
+        trainerIndex.removeEntry(entries.getTrainerName(index), history.getAddedVersion(index));
+        columns.remove(index);
         WorkoutEntry removed = entries.remove(index);
+        history.deleted(index, removed, LocalDateTime.now(clock));
+        fingerprints.remove(fingerprint);
+        sketches.remove(removed.getTrainerName(), removed.getWorkout(), 1);
+        updateLeaderboards(removed, -1);
+        removeFromProgression(removed.getTrainerName(), removed.getWorkout(), load, removed.getTimestamp());
 
         // keep trainer register in sync
         String trainer = removed.getTrainerName().trim();
         int newCount = trainerCounts.getOrDefault(trainer, 0) - 1;
         if (newCount <= 0) {
             trainerCounts.remove(trainer);
+            trainerIndex.remove(trainer);
+            estimatedSize -= TRAINER_OVERHEAD + trainer.length();
         } else {
             trainerCounts.put(trainer, newCount);
         }
         return true;
     }
 
+    /**
+     * Returns the current version of the book. It goes up by one with every entry added or deleted.
+     *
+     * @return the current version, 0 for a new book.
+     */
+    public synchronized long getVersion()
+    {
+        return history.getVersion();
+    }
+
+    /**
+     * Returns the oldest version that can still be searched. Older versions are forgotten by
+     * {@link #compactHistory(LocalDateTime)}.
+     *
+     * @return the oldest version.
+     */
+    public synchronized long getOldestVersion()
+    {
+        return history.getOldestVersion();
+    }
+
+    /**
+     * Returns the version of the book that was current at a given time, for use with the searches
+     * that take a version.
+     *
+     * @param time the time.
+     * @return the version current at that time, 0 if it is before the book was created.
+     * @throws IllegalArgumentException if the time is null, or the history at that time has been compacted.
+     */
+    public synchronized long versionAt(LocalDateTime time)
+    {
+        if (time == null)
+        {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        return history.versionAt(time);
+    }
+
+    /**
+     * Finds the workout entries for a trainer as the book was at a given version.
+     * Entries deleted since are included, and entries added since are not.
+     * Entries removed by a roll-up retention policy are not part of any version.
+     * Dropping the text of old entries is not a version either: the entries keep their place in every version,
+     * but are returned without their text, also in the versions from before the text was dropped.
+     *
+     * @param trainerName the trainer name to search for.
+     * @param version     the version to search, from {@link #getVersion()} or {@link #versionAt(LocalDateTime)}.
+     * @return a list of workout entries for the trainer, in the order they were added.
+     * @throws IllegalArgumentException if the version is in the future or has been compacted.
+     */
+    public synchronized List<WorkoutEntry> findByTrainerName(String trainerName, long version)
+    {
+        String needle = trainerName == null ? "" : trainerName.trim();
+        return findAsOf(version, i -> entries.getTrainerName(i).equalsIgnoreCase(needle),
+                e -> e.getTrainerName().equalsIgnoreCase(needle));
+    }
+
+    /**
+     * Finds the workout entries for a workout type as the book was at a given version.
+     *
+     * @param workout the workout type to search for.
+     * @param version the version to search.
+     * @return a list of workout entries for the workout type, in the order they were added.
+     * @throws IllegalArgumentException if the version is in the future or has been compacted.
+     * @see #findByTrainerName(String, long)
+     */
+    public synchronized List<WorkoutEntry> findByWorkout(String workout, long version)
+    {
+        String needle = workout == null ? "" : workout.trim();
+        return findAsOf(version, i -> entries.getWorkout(i).equalsIgnoreCase(needle),
+                e -> e.getWorkout().equalsIgnoreCase(needle));
+    }
+
+    /**
+     * Finds the workout entries for a date as the book was at a given version.
+     *
+     * @param date    the date to search for.
+     * @param version the version to search.
+     * @return a list of workout entries for the date, in the order they were added.
+     * @throws IllegalArgumentException if the date is null, or the version is in the future or has been compacted.
+     * @see #findByTrainerName(String, long)
+     */
+    public synchronized List<WorkoutEntry> findByDate(LocalDate date, long version)
+    {
+        if (date == null)
+        {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return findByDateRange(date, date, version);
+    }
+
+    /**
+     * Finds the workout entries within a date range as the book was at a given version.
+     *
+     * @param from    the start date (inclusive)
+     * @param to      the end date (inclusive)
+     * @param version the version to search.
+     * @return a list of workout entries between the two dates, in the order they were added.
+     * @throws IllegalArgumentException if either date is null, or the version is in the future or has been compacted.
+     * @see #findByTrainerName(String, long)
+     */
+    public synchronized List<WorkoutEntry> findByDateRange(LocalDate from, LocalDate to, long version)
+    {
+        if (from == null || to == null)
+        {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        return findAsOf(version, i -> entries.getEpochDay(i) >= first && entries.getEpochDay(i) <= last,
+                e -> !e.getTimestamp().toLocalDate().isBefore(from) && !e.getTimestamp().toLocalDate().isAfter(to));
+    }
+
+    /**
+     * Returns each trainer with entries at a given version and their number of entries then,
+     * in the order of their first entry, followed by trainers whose entries have all been rolled up.
+     * Like {@link #getTrainerStats()}, rolled up entries are counted, but only in the versions
+     * after they were added. Roll-ups added with {@link #addRollUp(WorkoutRollUp)} are counted in every version.
+     * Registered trainers without any entries are not included, so at the current version the result is
+     * {@link #getTrainerStats()} without the trainers whose count is 0.
+     * Entries whose text was dropped by retention are counted as before, in every version they existed in.
+     *
+     * @param version the version to count.
+     * @return a map of trainer names to their number of entries.
+     * @throws IllegalArgumentException if the version is in the future or has been compacted.
+     */
+    public synchronized Map<String, Integer> getTrainerStats(long version)
+    {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        history.visit(version, i -> stats.merge(entries.getTrainerName(i).trim(), 1, Integer::sum),
+                e -> stats.merge(e.getTrainerName().trim(), 1, Integer::sum));
+        rollUps.forEach((key, count) -> stats.merge(key.trainer(), count, Integer::sum));
+        history.visitRolledUpAfter(version, trainer -> stats.merge(trainer, -1, Integer::sum));
+        stats.values().removeIf(count -> count == 0);
+        return stats;
+    }
+
+    /**
+     * Returns how long deleted entries and old versions are kept.
+     *
+     * @return the history retention.
+     */
+    public synchronized Duration getHistoryRetention()
+    {
+        return historyRetention;
+    }
+
+    /**
+     * Sets how long deleted entries and old versions are kept by {@link #compactHistory(LocalDateTime)}.
+     *
+     * @param retention how long to keep the history, 30 days by default.
+     * @throws IllegalArgumentException if the retention is null or negative.
+     */
+    public synchronized void setHistoryRetention(Duration retention)
+    {
+        if (retention == null || retention.isNegative())
+        {
+            throw new IllegalArgumentException("History retention cannot be null or negative");
+        }
+        historyRetention = retention;
+    }
+
+    /**
+     * Forgets the versions older than the history retention, and the deleted entries only they could see.
+     * The book as it was at any time within the retention can still be searched.
+     *
+     * @param now the current time.
+     * @return the number of deleted entries forgotten.
+     * @throws IllegalArgumentException if the time is null.
+     */
+    public synchronized int compactHistory(LocalDateTime now)
+    {
+        if (now == null)
+        {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        List<WorkoutEntry> dropped = history.compact(now.minus(historyRetention));
+        dropped.forEach(e -> estimatedSize -= estimateSize(e));
+        return dropped.size();
+    }
+
+    /**
+     * Returns the number of deleted entries kept for searches of earlier versions.
+     *
+     * @return the number of deleted entries kept.
+     */
+    public synchronized int getNumberOfDeletedEntries()
+    {
+        return history.getNumberOfTombstones();
+    }
+
+    /**
+     * Collects the entries of a version that match, in the order they were added.
+     * Entries still in the store are tested by index, so only matches are read.
+     */
+    private List<WorkoutEntry> findAsOf(long version, IntPredicate live, Predicate<WorkoutEntry> deleted)
+    {
+        List<WorkoutEntry> result = new ArrayList<>();
+        history.visit(version, i -> {
+            if (live.test(i))
+            {
+                result.add(entries.get(i));
+            }
+        }, e -> {
+            if (deleted.test(e))
+            {
+                result.add(e);
+            }
+        });
+        return result;
+    }
+
     /**
      * Returns the number of workout entries in the collection.
      *
      * @return the number of workout entries in the collection.
      */
-    public int getNumberOfEntries()
+    public synchronized int getNumberOfEntries()
     {
         return entries.size();
     }
 
+    /**
+     * Adds a retention policy. Policies are applied in the order they were added
+     * each time {@link #applyRetention(LocalDateTime)} is called.
+     *
+     * @param policy the policy to add.
+     * @throws IllegalArgumentException if the policy is null.
+     */
+    public synchronized void addRetentionPolicy(RetentionPolicy policy)
+    {
+        if (policy == null)
+        {
+            throw new IllegalArgumentException("Retention policy cannot be null");
+        }
+        retentionPolicies.add(policy);
+    }
+
+    /**
+     * Returns the retention policies in the order they are applied.
+     *
+     * @return a list of the retention policies.
+     */
+    public synchronized List<RetentionPolicy> getRetentionPolicies()
+    {
+        return new ArrayList<>(retentionPolicies);
+    }
+
+    /**
+     * Applies every retention policy to the entries that are older than the policy's age at the given time.
+     * <p>
+     * The entries are processed in small batches, and the book is free for other threads between batches,
+     * so adding and searching entries is never held up for long. Entries added or deleted while
+     * retention runs may be missed, and are handled the next time.
+     * </p>
+     *
+     * @param now the time to measure the age of the entries from.
+     * @return the number of entries that lost their text or were rolled up.
+     * @throws IllegalArgumentException if now is null.
+     */
+    public int applyRetention(LocalDateTime now)
+    {
+        if (now == null)
+        {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+
+        int changed = 0;
+        for (RetentionPolicy policy : getRetentionPolicies())
+        {
+            LocalDateTime cutoff = now.minus(policy.getAge());
+            int position = 0;
+            boolean done = false;
+            while (!done)
+            {
+                synchronized (this)
+                {
+                    int end = Math.min(position + RETENTION_BATCH, entries.size());
+                    if (policy.getAction() == RetentionPolicy.Action.ROLL_UP)
+                    {
+                        int start = position;
+                        int before = entries.size();
+                        BitSet rolledUp = new BitSet();
+                        int removed = entries.removeIf(position, end, i -> {
+                            boolean old = entries.getTimestamp(i).isBefore(cutoff) && rollUp(i);
+                            rolledUp.set(i - start, old);
+                            return old;
+                        });
+                        history.forget(start, rolledUp, before);
+                        columns.forget(start, rolledUp, before);
+                        changed += removed;
+                        position = end - removed;
+                    }
+                    else
+                    {
+                        changed += dropText(position, end, cutoff);
+                        position = end;
+                    }
+                    done = position >= entries.size();
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Replaces the entries between two indexes that are older than the cutoff with copies that have no text.
+     *
+     * @return the number of entries changed.
+     */
+    private int dropText(int from, int to, LocalDateTime cutoff)
+    {
+        int changed = 0;
+        for (int i = from; i < to; i++)
+        {
+            int length = entries.getTextLength(i);
+            LocalDateTime timestamp = entries.getTimestamp(i);
+            if (timestamp.isBefore(cutoff) && length > 0)
+            {
+                entries.set(i, new WorkoutEntry(entries.getTrainerName(i), entries.getWorkout(i), "", timestamp));
+                estimatedSize -= length;
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Counts the entry at the given index in its daily roll-up. The trainer's count and the leaderboards
+     * are left as is, since the entry is still counted in the trainer statistics. Its fingerprint is kept
+     * for the same reason, so the entry is not counted twice if it is submitted again.
+     *
+     * @return always true, so it can be used in a removeIf condition.
+     */
+    private boolean rollUp(int index)
+    {
+        String trainer = entries.getTrainerName(index);
+        String workout = entries.getWorkout(index);
+        addToRollUp(LocalDate.ofEpochDay(entries.getEpochDay(index)), trainer.trim(), workout, 1);
+        trainerIndex.removeEntry(trainer, history.getAddedVersion(index));
+        history.rolledUp(index, trainer.trim());
+        estimatedSize -= ENTRY_OVERHEAD + trainer.length() + workout.length() + entries.getTextLength(index);
+        return true;
+    }
+
+    /**
+     * Adds a number of entries to the roll-up for the given day, trainer and workout.
+     */
+    private void addToRollUp(LocalDate date, String trainer, String workout, int count)
+    {
+        RollUpKey key = new RollUpKey(date, trainer, workout);
+        if (rollUps.merge(key, count, Integer::sum) == count)
+        {
+            estimatedSize += ROLL_UP_OVERHEAD + trainer.length() + workout.length();
+        }
+        rolledUpEntries += count;
+    }
+
+    /**
+     * Adds entries that were rolled up elsewhere, for example in a saved copy of the book,
+     * to the daily roll-ups and to the trainer statistics.
+     *
+     * @param rollUp the rolled up entries to add.
+     * @throws IllegalArgumentException if the roll-up is null.
+     */
+    public synchronized void addRollUp(WorkoutRollUp rollUp)
+    {
+        if (rollUp == null)
+        {
+            throw new IllegalArgumentException("Roll-up cannot be null");
+        }
+
+        String trainer = rollUp.getTrainerName().trim();
+        addToRollUp(rollUp.getDate(), trainer, rollUp.getWorkout(), rollUp.getCount());
+        countTrainer(trainer, rollUp.getCount());
+        sketches.add(trainer, rollUp.getWorkout(), rollUp.getDate(), rollUp.getCount());
+        trainerLeaderboard.add(trainer, rollUp.getCount());
+        workoutLeaderboard.add(rollUp.getWorkout().trim(), rollUp.getCount());
+        recentTrainerLeaderboard.add(rollUp.getDate(), trainer, rollUp.getCount());
+        recentWorkoutLeaderboard.add(rollUp.getDate(), rollUp.getWorkout().trim(), rollUp.getCount());
+    }
+
+    /**
+     * Returns the daily counts of rolled up entries per trainer and workout, oldest day first.
+     *
+     * @return a list of the roll-ups.
+     */
+    public synchronized List<WorkoutRollUp> getRollUps()
+    {
+        List<WorkoutRollUp> result = new ArrayList<>();
+        rollUps.forEach((key, count) -> result.add(new WorkoutRollUp(key.date(), key.trainer(), key.workout(), count)));
+        result.sort(Comparator.comparing(WorkoutRollUp::getDate)
+                .thenComparing(WorkoutRollUp::getTrainerName)
+                .thenComparing(WorkoutRollUp::getWorkout));
+        return result;
+    }
+
+    /**
+     * Returns the number of entries that have been rolled up. These are not part of
+     * {@link #getNumberOfEntries()}.
+     *
+     * @return the number of rolled up entries.
+     */
+    public synchronized int getNumberOfRolledUpEntries()
+    {
+        return rolledUpEntries;
+    }
+
+    /**
+     * Returns a rough estimate of the heap memory used by the entries and trainers in the collection.
+     * The estimate is kept up to date as entries are added and deleted, so calling this is cheap.
+     *
+     * @return the estimated size in bytes.
+     */
+    public synchronized long getEstimatedSize()
+    {
+        return estimatedSize + sketches.getSize() + fingerprints.getSize() + history.getSize() + columns.getSize();
+    }
+
+    /**
+     * Writes the state that cannot be rebuilt from the entries once retention has dropped their text:
+     * the fingerprints of the entries as they were added, the number of duplicates turned away,
+     * the loads of every progression, the sketches, which also count deleted entries, and the history
+     * of versions and deleted entries.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    public synchronized void writeState(DataOutput out) throws IOException
+    {
+        columns.write(out);
+        fingerprints.write(out);
+        out.writeLong(duplicates);
+
+        List<WorkoutProgression> all = new ArrayList<>();
+        progressions.values().forEach(byWorkout -> all.addAll(byWorkout.values()));
+        out.writeInt(all.size());
+        for (WorkoutProgression progression : all)
+        {
+            progression.write(out);
+        }
+        sketches.write(out);
+        history.write(out);
+    }
+
+    /**
+     * Replaces the state written by {@link #writeState(DataOutput)}. The book must hold the same
+     * entries, in the same order, as the book the state was written from, and none may have been deleted.
+     *
+     * @param in where to read from.
+     * @throws IOException if reading fails or the state does not match the entries.
+     */
+    public synchronized void readState(DataInput in) throws IOException
+    {
+        columns.read(in, entries.size());
+        fingerprints.read(in);
+        duplicates = in.readLong();
+
+        progressions.clear();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++)
+        {
+            WorkoutProgression progression = WorkoutProgression.read(in);
+            progressions.computeIfAbsent(key(progression.getTrainerName()), t -> new LinkedHashMap<>())
+                    .put(key(progression.getWorkout()), progression);
+        }
+
+        sketches.read(in);
+
+        // deleted entries stay counted while they are kept as tombstones
+        history.read(in).forEach(e -> estimatedSize += estimateSize(e));
+
+        // the entries were added again when loaded, so their versions have changed
+        trainerIndex.clearEntries();
+        for (int i = 0; i < entries.size(); i++)
+        {
+            trainerIndex.addEntry(entries.getTrainerName(i), history.getAddedVersion(i));
+        }
+    }
+
+    /**
+     * Estimates the heap memory used by one entry: the entry object, its timestamp,
+     * its three strings and its slot in the list.
+     */
+    private static long estimateSize(WorkoutEntry entry)
+    {
+        return ENTRY_OVERHEAD + entry.getTrainerName().length() + entry.getWorkout().length()
+                + entry.getText().length();
+    }
+
     /**
      * Returns an iterator over the workout entries in the collection.
+     * The iterator works on a copy, so it is not affected by entries added or removed later.
      *
      * @return an iterator over the workout entries in the collection.
      */
-    public Iterator<WorkoutEntry> getIterator()
+    public synchronized Iterator<WorkoutEntry> getIterator()
     {
-        return entries.iterator();
+        List<WorkoutEntry> copy = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++)
+        {
+            copy.add(entries.get(i));
+        }
+        return Collections.unmodifiableList(copy).iterator();
     }
 }
\ No newline at end of file
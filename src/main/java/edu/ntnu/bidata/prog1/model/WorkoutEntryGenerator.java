@@ -0,0 +1,299 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates realistic workout entries for test data and load tests.
+ * The same seed always gives the same entries, so a run can be repeated exactly.
+ *
+ * <ul>
+ * <li>Trainers and workouts follow Zipf distributions: a few trainers log most of the entries,
+ * and a few workouts are far more popular than the rest.<li>
+ * <li>Timestamps cluster in the morning, at lunch and in the evening, are rarer at weekends,
+ * and are more common in January than in summer.<li>
+ * <li>Texts vary from a short line to a long paragraph, and most mention the load in kg,
+ * which slowly goes up over the period.<li>
+ *</ul>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryGenerator
+{
+    // Zipf exponents; trainers are more skewed than workouts
+    private static final double TRAINER_SKEW = 1.1;
+    private static final double WORKOUT_SKEW = 0.9;
+
+    // The largest value dayWeight can return
+    private static final double MAX_DAY_WEIGHT = 1.3;
+
+    private static final String[] FIRST_NAMES = {
+        "Binit", "Anish", "Omkar", "Shraddha", "Sabin", "Arne", "Ingrid", "Lars", "Maja", "Jonas",
+        "Sofie", "Emil", "Nora", "Henrik", "Aisha", "Kari", "Mateo", "Priya", "Ole", "Hanna",
+        "Tobias", "Sara", "Magnus", "Leah", "Sindre", "Amalie", "Jakob", "Thea", "Filip", "Ida"
+    };
+
+    // Workouts with a typical starting load in kg, or 0 for body-weight workouts
+    private static final String[] WORKOUTS = {
+        "Squat", "Bench Press", "Dead-lift", "Biceps", "Triceps", "Shoulder Press", "Pull-ups",
+        "Lunges", "Leg Press", "Rowing", "Plank", "Lat Pull-down", "Calf Raises", "Hip Thrust",
+        "Push-ups", "Running", "Cycling", "Kettlebell Swing", "Chest Fly", "Face Pull"
+    };
+    private static final int[] BASE_LOADS = {
+        60, 50, 80, 12, 15, 30, 0, 20, 100, 40, 0, 45, 60, 70, 0, 0, 0, 16, 14, 20
+    };
+
+    private static final String[] NOTES = {
+        "Warmed up with ten minutes on the rower.",
+        "Rested 90 seconds between sets.",
+        "Focused on slow and controlled reps.",
+        "Felt strong today.",
+        "Lower back was a bit stiff, so kept the form strict.",
+        "Finished with stretching for the hips and hamstrings.",
+        "Used a spotter for the last set.",
+        "Slept badly, so the last set was hard.",
+        "Tried a slightly wider grip.",
+        "Added a drop set at the end.",
+        "Kept the tempo at three seconds down and one second up.",
+        "Will try to add weight next session."
+    };
+
+    private final SplittableRandom random;
+    private final List<String> trainers = new ArrayList<>();
+    private final double[] trainerCdf;
+    private final double[] workoutCdf;
+    private final long fromDay;
+    private final int days;
+
+    /**
+     * Create an instance of WorkoutEntryGenerator.
+     *
+     * @param seed     the seed; the same seed gives the same entries.
+     * @param trainers the number of distinct trainers.
+     * @param from     the first day of the period the entries are spread over.
+     * @param to       the last day of the period.
+     * @throws IllegalArgumentException if the number of trainers is not positive,
+     *                                  or the days are null or in the wrong order.
+     */
+    public WorkoutEntryGenerator(long seed, int trainers, LocalDate from, LocalDate to)
+    {
+        if (trainers <= 0)
+        {
+            throw new IllegalArgumentException("Number of trainers must be positive");
+        }
+        if (from == null || to == null || to.isBefore(from))
+        {
+            throw new IllegalArgumentException("Period must have a first day on or before the last day");
+        }
+
+        this.random = new SplittableRandom(seed);
+        for (int i = 0; i < trainers; i++)
+        {
+            String name = FIRST_NAMES[i % FIRST_NAMES.length];
+            this.trainers.add(i < FIRST_NAMES.length ? name : name + " " + (i / FIRST_NAMES.length + 1));
+        }
+        this.trainerCdf = zipfCdf(trainers, TRAINER_SKEW);
+        this.workoutCdf = zipfCdf(WORKOUTS.length, WORKOUT_SKEW);
+        this.fromDay = from.toEpochDay();
+        this.days = (int) (to.toEpochDay() - fromDay + 1);
+    }
+
+    /**
+     * Returns the trainers in order of how often they are picked, most often first.
+     *
+     * @return the trainer names.
+     */
+    public List<String> getTrainers()
+    {
+        return List.copyOf(trainers);
+    }
+
+    /**
+     * Picks a trainer, following the Zipf distribution of trainers.
+     *
+     * @return a trainer name.
+     */
+    public String nextTrainer()
+    {
+        return trainers.get(pick(trainerCdf));
+    }
+
+    /**
+     * Picks a workout, following the Zipf distribution of workouts.
+     *
+     * @return a workout.
+     */
+    public String nextWorkout()
+    {
+        return WORKOUTS[pick(workoutCdf)];
+    }
+
+    /**
+     * Picks a timestamp in the period, following the daily, weekly and yearly patterns.
+     *
+     * @return a timestamp.
+     */
+    public LocalDateTime nextTimestamp()
+    {
+        LocalDate day;
+        do
+        {
+            day = LocalDate.ofEpochDay(fromDay + random.nextInt(days));
+        }
+        while (random.nextDouble() * MAX_DAY_WEIGHT > dayWeight(day));
+
+        return day.atStartOfDay().plusSeconds(secondOfDay());
+    }
+
+    /**
+     * Generates one entry at a random time in the period.
+     *
+     * @return a new workout entry.
+     */
+    public WorkoutEntry next()
+    {
+        return entryAt(nextTimestamp());
+    }
+
+    /**
+     * Adds entries to a book in the order of their timestamps, as if they had been logged over the period.
+     *
+     * @param book  the book to add to.
+     * @param count the number of entries to add.
+     * @throws IllegalArgumentException if the book is null or the count is negative.
+     */
+    public void fill(WorkoutEntryBook book, int count)
+    {
+        if (book == null || count < 0)
+        {
+            throw new IllegalArgumentException("Book cannot be null and count cannot be negative");
+        }
+
+        // only the timestamps are sorted, so no entry is kept longer than needed
+        long[] seconds = new long[count];
+        for (int i = 0; i < count; i++)
+        {
+            seconds[i] = nextTimestamp().toEpochSecond(ZoneOffset.UTC);
+        }
+        Arrays.sort(seconds);
+        for (long second : seconds)
+        {
+            book.addEntry(entryAt(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC)));
+        }
+    }
+
+    /**
+     * Returns how busy a day is, relative to an ordinary weekday: less at weekends,
+     * more in January after the new year's resolutions and less in the summer holidays.
+     */
+    private static double dayWeight(LocalDate day)
+    {
+        double week = switch (day.getDayOfWeek())
+        {
+            case FRIDAY -> 0.8;
+            case SATURDAY -> 0.6;
+            case SUNDAY -> 0.5;
+            default -> 1.0;
+        };
+        double season = 1 + 0.3 * Math.cos(2 * Math.PI * (day.getDayOfYear() - 15) / 365.0);
+        return week * season;
+    }
+
+    /**
+     * Picks a time of day around the morning, lunch or evening peak, between 05:00 and 23:00.
+     */
+    private long secondOfDay()
+    {
+        double r = random.nextDouble();
+        double hour;
+        if (r < 0.35)
+        {
+            hour = 7 + random.nextGaussian() * 1.0;
+        }
+        else if (r < 0.5)
+        {
+            hour = 12 + random.nextGaussian() * 0.75;
+        }
+        else
+        {
+            hour = 18 + random.nextGaussian() * 1.5;
+        }
+        hour = Math.max(5, Math.min(23 - 1 / 3600.0, hour));
+        return (long) (hour * 3600);
+    }
+
+    /**
+     * Generates an entry at the given time.
+     */
+    private WorkoutEntry entryAt(LocalDateTime timestamp)
+    {
+        int trainer = pick(trainerCdf);
+        int workout = pick(workoutCdf);
+        return new WorkoutEntry(trainers.get(trainer), WORKOUTS[workout], text(trainer, workout, timestamp), timestamp);
+    }
+
+    /**
+     * Generates the text of an entry: the sets, reps and load, followed by a few notes.
+     * The number of notes has a geometric distribution, so most texts are short and a few are long.
+     */
+    private String text(int trainer, int workout, LocalDateTime timestamp)
+    {
+        StringBuilder text = new StringBuilder();
+        int sets = 3 + random.nextInt(3);
+        int reps = 5 + random.nextInt(11);
+        if (BASE_LOADS[workout] > 0)
+        {
+            // each trainer has their own strength, and gains about 10 % over a year
+            double strength = 0.7 + (trainer * 0.618034 % 1) * 0.6;
+            double progress = 1 + 0.1 * (timestamp.toLocalDate().toEpochDay() - fromDay) / 365.0;
+            double load = BASE_LOADS[workout] * strength * progress * (0.9 + random.nextDouble() * 0.2);
+            text.append(sets).append(" sets of ").append(reps).append(" reps at ")
+                    .append(Math.round(load * 2) / 2.0).append(" kg.");
+        }
+        else
+        {
+            text.append(sets).append(" rounds of ").append(reps * 2).append(" minutes or reps.");
+        }
+
+        while (text.length() < 1000 && random.nextDouble() < 0.55)
+        {
+            text.append(' ').append(NOTES[random.nextInt(NOTES.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Picks an index from a cumulative distribution.
+     */
+    private int pick(double[] cdf)
+    {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    /**
+     * Returns the cumulative distribution of a Zipf distribution over n items, where
+     * the item of rank k is picked with a probability proportional to 1 / k<sup>skew</sup>.
+     */
+    private static double[] zipfCdf(int n, double skew)
+    {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++)
+        {
+            sum += 1 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++)
+        {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+}
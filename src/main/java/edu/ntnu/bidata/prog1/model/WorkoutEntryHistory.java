@@ -0,0 +1,503 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The history of a {@link WorkoutEntryBook}, so the book can be searched as it was at an earlier version.
+ * <p>
+ * Every addition and deletion is a new version. The version each entry in the store was added in is kept
+ * in a column next to the store; since entries are only appended, the column is sorted, and the entries
+ * that existed at a version are a prefix of the store. A deleted entry is kept as a tombstone with the
+ * versions it was added and deleted in. Tombstones are kept in the order they were deleted, so those deleted
+ * after a version are found by a binary search. Reading a version therefore scans the prefix of the store and
+ * those tombstones, without copying the store. The time of each version is kept so a time can be turned into a version.
+ * </p>
+ * <p>
+ * Entries rolled up by retention leave the store and every version. For the trainer statistics, the history
+ * remembers the trainer and added version of each rolled up entry whose added version can still be read,
+ * so the statistics of an earlier version do not count entries that were only added later.
+ * </p>
+ * <p>
+ * Compaction forgets versions older than a horizon, and the tombstones only those versions could see.
+ * A history that is saved with its book keeps every version it could read.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+class WorkoutEntryHistory
+{
+    private final WorkoutEntryStore entries;
+
+    // Version each entry in the store was added in, in the same order as the store
+    private long[] addedVersions = new long[1024];
+
+    // In the order they were deleted, which is increasing deleted version
+    private final List<Tombstone> tombstones = new ArrayList<>();
+
+    // Rolled up entries added after the oldest version, which earlier versions must not count
+    private final List<RolledUp> rolledUp = new ArrayList<>();
+
+    private long version;
+
+    // Time of every version from oldestVersion on, in nanoseconds since 1970 in local time
+    private long[] versionTimes = new long[1024];
+    private int times;
+    private long oldestVersion;
+
+    /**
+     * A deleted entry and the versions it was visible in: from added up to but not including deleted.
+     */
+    private record Tombstone(WorkoutEntry entry, long added, long deleted)
+    {
+    }
+
+    /**
+     * The trainer of an entry that was rolled up, and the version the entry was added in.
+     */
+    private record RolledUp(String trainer, long added)
+    {
+    }
+
+    /**
+     * Create the history of an empty store, starting at version 0.
+     *
+     * @param entries the store of the book.
+     * @param created when the book was created.
+     */
+    WorkoutEntryHistory(WorkoutEntryStore entries, LocalDateTime created)
+    {
+        this.entries = entries;
+        versionTimes[times++] = nanos(created);
+    }
+
+    /**
+     * Records that an entry has been appended to the store.
+     *
+     * @param time when it was added.
+     */
+    void added(LocalDateTime time)
+    {
+        newVersion(time);
+        int index = entries.size() - 1;
+        if (index == addedVersions.length)
+        {
+            addedVersions = Arrays.copyOf(addedVersions, index * 2);
+        }
+        addedVersions[index] = version;
+    }
+
+    /**
+     * Records that an entry has been removed from the store, keeping it as a tombstone.
+     *
+     * @param index   the index the entry had.
+     * @param removed the entry.
+     * @param time    when it was deleted.
+     */
+    void deleted(int index, WorkoutEntry removed, LocalDateTime time)
+    {
+        newVersion(time);
+        tombstones.add(new Tombstone(removed.withLoadedText(), addedVersions[index], version));
+        System.arraycopy(addedVersions, index + 1, addedVersions, index, entries.size() - index);
+    }
+
+    /**
+     * Records that the entry at the given index is being rolled up. Must be called before
+     * {@link #forget(int, BitSet, int)} removes it.
+     *
+     * @param index   the index of the entry.
+     * @param trainer the entry's trainer.
+     */
+    void rolledUp(int index, String trainer)
+    {
+        if (addedVersions[index] > oldestVersion)
+        {
+            rolledUp.add(new RolledUp(trainer, addedVersions[index]));
+        }
+    }
+
+    /**
+     * Visits the trainer of every rolled up entry that was added after a version.
+     *
+     * @param version the version.
+     * @param trainer called with the trainer of each such entry.
+     */
+    void visitRolledUpAfter(long version, Consumer<String> trainer)
+    {
+        for (RolledUp r : rolledUp)
+        {
+            if (r.added() > version)
+            {
+                trainer.accept(r.trainer());
+            }
+        }
+    }
+
+    /**
+     * Forgets entries that have been removed from the store without a new version, as retention does.
+     * They disappear from every version.
+     *
+     * @param from    the index of the first entry that may have been removed.
+     * @param removed the removed entries, counted from {@code from}, as they were numbered before removal.
+     * @param before  the number of entries in the store before removal.
+     */
+    void forget(int from, BitSet removed, int before)
+    {
+        int kept = from;
+        for (int i = from; i < before; i++)
+        {
+            if (!removed.get(i - from))
+            {
+                addedVersions[kept++] = addedVersions[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the version the entry at the given index was added in. No two entries in the store
+     * have the same one, so it identifies the entry while it moves in the store.
+     *
+     * @param index the index of the entry.
+     * @return the version it was added in.
+     */
+    long getAddedVersion(int index)
+    {
+        return addedVersions[index];
+    }
+
+    /**
+     * Returns the index in the store of the entry added in the given version.
+     *
+     * @param added the version the entry was added in.
+     * @return the index, or -1 if no entry in the store was added in that version.
+     */
+    int indexOfAdded(long added)
+    {
+        int i = Arrays.binarySearch(addedVersions, 0, entries.size(), added);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * Returns the current version.
+     *
+     * @return the current version.
+     */
+    long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the oldest version that can still be read.
+     *
+     * @return the oldest version.
+     */
+    long getOldestVersion()
+    {
+        return oldestVersion;
+    }
+
+    /**
+     * Returns the version that was current at a given time.
+     *
+     * @param time the time.
+     * @return the version.
+     * @throws IllegalArgumentException if the time is before the oldest version that can still be read.
+     */
+    long versionAt(LocalDateTime time)
+    {
+        long t = nanos(time);
+        if (t < versionTimes[0])
+        {
+            if (oldestVersion > 0)
+            {
+                throw new IllegalArgumentException("The book's history before " + time + " has been compacted");
+            }
+            return 0;
+        }
+        int low = 0;
+        int high = times - 1;
+        while (low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (versionTimes[mid] <= t)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return oldestVersion + low;
+    }
+
+    /**
+     * Visits the entries that existed at a version, in the order they were added.
+     * Entries still in the store are given by index, and deleted ones as tombstoned entries.
+     *
+     * @param version the version to read.
+     * @param live    called with the index of each entry still in the store.
+     * @param deleted called with each entry that has been deleted since.
+     * @throws IllegalArgumentException if the version is in the future or has been compacted.
+     */
+    void visit(long version, IntConsumer live, Consumer<WorkoutEntry> deleted)
+    {
+        if (version < oldestVersion || version > this.version)
+        {
+            throw new IllegalArgumentException("Version must be from " + oldestVersion + " to " + this.version);
+        }
+
+        List<Tombstone> visible = new ArrayList<>();
+        for (int k = firstDeletedAfter(version); k < tombstones.size(); k++)
+        {
+            Tombstone t = tombstones.get(k);
+            if (t.added() <= version)
+            {
+                visible.add(t);
+            }
+        }
+        visible.sort(Comparator.comparingLong(Tombstone::added));
+
+        int end = upperBound(version);
+        int j = 0;
+        for (int i = 0; i < end; i++)
+        {
+            while (j < visible.size() && visible.get(j).added() < addedVersions[i])
+            {
+                deleted.accept(visible.get(j++).entry());
+            }
+            live.accept(i);
+        }
+        while (j < visible.size())
+        {
+            deleted.accept(visible.get(j++).entry());
+        }
+    }
+
+    /**
+     * Forgets the versions before the one that was current at the horizon, and the tombstones
+     * of entries deleted before then, which no later version can see.
+     *
+     * @param horizon the oldest time that must still be readable.
+     * @return the entries of the tombstones that were dropped.
+     */
+    List<WorkoutEntry> compact(LocalDateTime horizon)
+    {
+        if (nanos(horizon) < versionTimes[0])
+        {
+            return List.of();
+        }
+        long keep = versionAt(horizon);
+
+        List<Tombstone> old = tombstones.subList(0, firstDeletedAfter(keep));
+        List<WorkoutEntry> dropped = new ArrayList<>(old.size());
+        old.forEach(t -> dropped.add(t.entry()));
+        old.clear();
+        rolledUp.removeIf(r -> r.added() <= keep);
+
+        int drop = (int) (keep - oldestVersion);
+        System.arraycopy(versionTimes, drop, versionTimes, 0, times - drop);
+        times -= drop;
+        oldestVersion = keep;
+        return dropped;
+    }
+
+    /**
+     * Writes every version that can still be read: their times, the version of each entry in the store,
+     * the tombstones and the rolled up entries.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    void write(DataOutput out) throws IOException
+    {
+        out.writeLong(version);
+        out.writeLong(oldestVersion);
+        for (int i = 0; i < times; i++)
+        {
+            out.writeLong(versionTimes[i]);
+        }
+
+        out.writeInt(entries.size());
+        for (int i = 0; i < entries.size(); i++)
+        {
+            out.writeLong(addedVersions[i]);
+        }
+
+        out.writeInt(tombstones.size());
+        for (Tombstone t : tombstones)
+        {
+            BinaryIO.writeEntry(out, t.entry());
+            out.writeLong(t.added());
+            out.writeLong(t.deleted());
+        }
+
+        out.writeInt(rolledUp.size());
+        for (RolledUp r : rolledUp)
+        {
+            BinaryIO.writeString(out, r.trainer());
+            out.writeLong(r.added());
+        }
+    }
+
+    /**
+     * Replaces the history with one written by {@link #write(DataOutput)}. The store must hold
+     * the same entries as the store of the history that was written, and no entry may have been deleted yet.
+     *
+     * @param in where to read from.
+     * @return the entries of the tombstones that were read.
+     * @throws IOException if reading fails or the history does not match the store.
+     */
+    List<WorkoutEntry> read(DataInput in) throws IOException
+    {
+        if (!tombstones.isEmpty())
+        {
+            throw new IllegalStateException("Cannot read a history over deleted entries");
+        }
+        long readVersion = in.readLong();
+        long readOldest = in.readLong();
+        if (readOldest < 0 || readOldest > readVersion || readVersion - readOldest >= Integer.MAX_VALUE)
+        {
+            throw new IOException("Invalid versions " + readOldest + " to " + readVersion);
+        }
+        version = readVersion;
+        oldestVersion = readOldest;
+        times = (int) (version - oldestVersion) + 1;
+        versionTimes = new long[Math.max(1024, times)];
+        for (int i = 0; i < times; i++)
+        {
+            versionTimes[i] = in.readLong();
+        }
+
+        int n = in.readInt();
+        if (n != entries.size())
+        {
+            throw new IOException("Expected versions for " + entries.size() + " entries, found " + n);
+        }
+        addedVersions = new long[Math.max(1024, n)];
+        for (int i = 0; i < n; i++)
+        {
+            addedVersions[i] = in.readLong();
+        }
+
+        List<WorkoutEntry> read = new ArrayList<>();
+        int deleted = in.readInt();
+        for (int i = 0; i < deleted; i++)
+        {
+            WorkoutEntry e = BinaryIO.readEntry(in);
+            Tombstone t = new Tombstone(e, in.readLong(), in.readLong());
+            if (!tombstones.isEmpty() && t.deleted() <= tombstones.get(tombstones.size() - 1).deleted())
+            {
+                throw new IOException("Tombstones are not in the order they were deleted");
+            }
+            tombstones.add(t);
+            read.add(e);
+        }
+
+        rolledUp.clear();
+        int rolled = in.readInt();
+        for (int i = 0; i < rolled; i++)
+        {
+            rolledUp.add(new RolledUp(BinaryIO.readString(in), in.readLong()));
+        }
+        return read;
+    }
+
+    /**
+     * Returns the number of deleted entries that are still kept.
+     *
+     * @return the number of tombstones.
+     */
+    int getNumberOfTombstones()
+    {
+        return tombstones.size();
+    }
+
+    /**
+     * Returns the number of bytes used by the version column and the version times, not counting the tombstones.
+     *
+     * @return the size in bytes.
+     */
+    long getSize()
+    {
+        return (long) (addedVersions.length + versionTimes.length) * Long.BYTES;
+    }
+
+    /**
+     * Starts a new version at the given time. Times never go backwards, even if the clock does.
+     */
+    private void newVersion(LocalDateTime time)
+    {
+        version++;
+        if (times == versionTimes.length)
+        {
+            versionTimes = Arrays.copyOf(versionTimes, times * 2);
+        }
+        versionTimes[times] = Math.max(nanos(time), versionTimes[times - 1]);
+        times++;
+    }
+
+    /**
+     * Returns the index of the first tombstone deleted after a version, or the number of tombstones if none was.
+     */
+    private int firstDeletedAfter(long version)
+    {
+        int low = 0;
+        int high = tombstones.size();
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (tombstones.get(mid).deleted() <= version)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of entries in the store that were added in or before a version.
+     */
+    private int upperBound(long version)
+    {
+        int low = 0;
+        int high = entries.size();
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (addedVersions[mid] <= version)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a time as nanoseconds since 1970.
+     */
+    private static long nanos(LocalDateTime time)
+    {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+}
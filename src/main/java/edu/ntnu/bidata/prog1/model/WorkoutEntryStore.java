@@ -0,0 +1,126 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.LocalDateTime;
+import java.util.function.IntPredicate;
+
+/**
+ * Holds the workout entries of a WorkoutEntryBook, in the order they were added.
+ * Besides reading whole entries, a store can return single fields of an entry by index,
+ * so searches can check an entry without creating a WorkoutEntry for it.
+ *
+ * <ul>
+ * <li>Add, replace, read and remove entries by index.<li>
+ * <li>Read the trainer name, workout, date and time, and text length of an entry.<li>
+ * <li>Remove many entries in one pass.<li>
+ *</ul>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public interface WorkoutEntryStore extends AutoCloseable
+{
+    /**
+     * Returns the number of entries in the store.
+     *
+     * @return the number of entries in the store.
+     */
+    int size();
+
+    /**
+     * Adds an entry to the end of the store.
+     *
+     * @param entry the entry to add.
+     */
+    void add(WorkoutEntry entry);
+
+    /**
+     * Returns the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @return the entry at the index.
+     * @throws IndexOutOfBoundsException if the index is invalid.
+     */
+    WorkoutEntry get(int index);
+
+    /**
+     * Replaces the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @param entry the new entry.
+     * @throws IndexOutOfBoundsException if the index is invalid.
+     */
+    void set(int index, WorkoutEntry entry);
+
+    /**
+     * Removes the entry at the given index. Later entries move down one place.
+     *
+     * @param index the index of the entry.
+     * @return the removed entry.
+     * @throws IndexOutOfBoundsException if the index is invalid.
+     */
+    WorkoutEntry remove(int index);
+
+    /**
+     * Removes the entries between two indexes for which the test is true, in one pass.
+     * The test is called once for each index, in order, before that entry is moved,
+     * and must only read the entry at the index it is given.
+     *
+     * @param from the first index to test (inclusive).
+     * @param to   the last index to test (exclusive).
+     * @param test returns true for the indexes to remove.
+     * @return the number of entries removed.
+     * @throws IndexOutOfBoundsException if the range is invalid.
+     */
+    int removeIf(int from, int to, IntPredicate test);
+
+    /**
+     * Returns the trainer name of the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @return the trainer name.
+     */
+    String getTrainerName(int index);
+
+    /**
+     * Returns the workout of the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @return the workout.
+     */
+    String getWorkout(int index);
+
+    /**
+     * Returns the date and time of the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @return the date and time.
+     */
+    LocalDateTime getTimestamp(int index);
+
+    /**
+     * Returns the day of the entry at the given index, as the number of days since 1970-01-01.
+     *
+     * @param index the index of the entry.
+     * @return the epoch day.
+     */
+    default long getEpochDay(int index)
+    {
+        return getTimestamp(index).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Returns the number of characters in the text of the entry at the given index.
+     *
+     * @param index the index of the entry.
+     * @return the length of the text.
+     */
+    int getTextLength(int index);
+
+    /**
+     * Releases any memory the store holds outside the Java heap. The store cannot be used afterwards.
+     */
+    @Override
+    default void close()
+    {
+    }
+}
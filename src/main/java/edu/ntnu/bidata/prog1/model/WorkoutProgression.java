@@ -0,0 +1,410 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks one trainer's progress in one workout.
+ * The load of an entry is the heaviest weight in kg mentioned in its text, for example
+ * "finishing with 60 kg". The personal record is updated each time an entry is added, and the
+ * recent loads and their moving average are read from a ring of the last {@value #HISTORY} loads,
+ * so reading them never looks at older entries.
+ * <p>
+ * Only the last {@value #HISTORY} loads are kept with their entry's time, and every other load is only
+ * counted under its value, so the memory used grows with the number of distinct loads, not entries.
+ * Deleting an entry uncounts its load in O(log n), and removes it from the recent loads if it is one of them.
+ * Older loads do not move up to take its place, so there are fewer recent loads until new entries are added.
+ * Entries whose text has been dropped or that have been rolled up keep their load.
+ * </p>
+ * <p>
+ * The time of the personal record is that of the first entry logged with its load. If that entry is deleted
+ * while other entries have the same load, the record keeps the deleted entry's time, since the times
+ * of older entries are not kept.
+ * </p>
+ *
+ * @author Binit Dhungana
+ * @version 2026-10-19
+ */
+public class WorkoutProgression
+{
+    /**
+     * Number of recent loads shown, and used for the moving average.
+     */
+    public static final int HISTORY = 10;
+
+    private static final Pattern LOAD = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*kg\\b", Pattern.CASE_INSENSITIVE);
+
+    private final String trainerName;
+    private final String workout;
+
+    private int sessions;
+    private double personalRecord = Double.NaN;
+    private LocalDateTime personalRecordTime;
+
+    // Number of logged entries with each load, and when the load was first logged
+    private final TreeMap<Double, LoadCount> loadCounts = new TreeMap<>();
+
+    // The last HISTORY loads with their entry's time, oldest at index first
+    private final double[] recentLoads = new double[HISTORY];
+    private final LocalDateTime[] recentTimes = new LocalDateTime[HISTORY];
+    private int first;
+    private int recent;
+
+    /**
+     * The number of logged entries with one load, and when the load was first logged.
+     */
+    private static class LoadCount
+    {
+        private int count;
+        private LocalDateTime firstTime;
+
+        private LoadCount(LocalDateTime firstTime)
+        {
+            this.firstTime = firstTime;
+        }
+    }
+
+    /**
+     * Create an instance of WorkoutProgression with no entries.
+     *
+     * @param trainerName the trainer.
+     * @param workout     the workout.
+     */
+    WorkoutProgression(String trainerName, String workout)
+    {
+        this.trainerName = trainerName;
+        this.workout = workout;
+    }
+
+    /**
+     * Returns the heaviest load in kg mentioned in a text.
+     *
+     * @param text the text to read.
+     * @return the heaviest load, or NaN if the text mentions no load.
+     */
+    public static double parseLoad(String text)
+    {
+        double max = Double.NaN;
+        Matcher m = LOAD.matcher(text);
+        while (m.find())
+        {
+            double load = Double.parseDouble(m.group(1).replace(',', '.'));
+            if (Double.isNaN(max) || load > max)
+            {
+                max = load;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Adds an entry's load. Entries that mention no load only count as a session.
+     *
+     * @param load      the load in kg, or NaN.
+     * @param timestamp when the entry was logged.
+     */
+    void add(double load, LocalDateTime timestamp)
+    {
+        sessions++;
+        if (Double.isNaN(load))
+        {
+            return;
+        }
+
+        LoadCount count = loadCounts.get(load);
+        if (count == null)
+        {
+            count = new LoadCount(timestamp);
+            loadCounts.put(load, count);
+        }
+        else if (timestamp.isBefore(count.firstTime))
+        {
+            count.firstTime = timestamp;
+        }
+        count.count++;
+        updatePersonalRecord();
+
+        if (recent == HISTORY)
+        {
+            recentLoads[first] = load;
+            recentTimes[first] = timestamp;
+            first = (first + 1) % HISTORY;
+        }
+        else
+        {
+            recentLoads[slot(recent)] = load;
+            recentTimes[slot(recent)] = timestamp;
+            recent++;
+        }
+    }
+
+    /**
+     * Removes a deleted entry's load, given as it was added. If it is one of the recent loads,
+     * the most recently added matching one is removed from them.
+     *
+     * @param load      the load in kg, or NaN.
+     * @param timestamp when the entry was logged.
+     */
+    void remove(double load, LocalDateTime timestamp)
+    {
+        sessions--;
+        if (Double.isNaN(load))
+        {
+            return;
+        }
+
+        LoadCount count = loadCounts.get(load);
+        if (count != null && --count.count == 0)
+        {
+            loadCounts.remove(load);
+        }
+        updatePersonalRecord();
+
+        for (int i = recent - 1; i >= 0; i--)
+        {
+            if (Double.compare(recentLoads[slot(i)], load) == 0 && recentTimes[slot(i)].equals(timestamp))
+            {
+                for (int j = i; j < recent - 1; j++)
+                {
+                    recentLoads[slot(j)] = recentLoads[slot(j + 1)];
+                    recentTimes[slot(j)] = recentTimes[slot(j + 1)];
+                }
+                recent--;
+                recentTimes[slot(recent)] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets the personal record to the heaviest counted load.
+     */
+    private void updatePersonalRecord()
+    {
+        Map.Entry<Double, LoadCount> heaviest = loadCounts.lastEntry();
+        personalRecord = heaviest == null ? Double.NaN : heaviest.getKey();
+        personalRecordTime = heaviest == null ? null : heaviest.getValue().firstTime;
+    }
+
+    /**
+     * Returns the index in the ring of the i-th recent load, counted from the oldest.
+     */
+    private int slot(int i)
+    {
+        return (first + i) % HISTORY;
+    }
+
+    /**
+     * Returns a copy that is not affected by later entries.
+     * It does not hold the counts of older loads, so it cannot be used to remove entries.
+     *
+     * @return a copy of this progression.
+     */
+    WorkoutProgression copy()
+    {
+        WorkoutProgression copy = new WorkoutProgression(trainerName, workout);
+        copy.sessions = sessions;
+        copy.personalRecord = personalRecord;
+        copy.personalRecordTime = personalRecordTime;
+        for (int i = 0; i < recent; i++)
+        {
+            copy.recentLoads[i] = recentLoads[slot(i)];
+            copy.recentTimes[i] = recentTimes[slot(i)];
+        }
+        copy.recent = recent;
+        return copy;
+    }
+
+    /**
+     * Writes the progression: the count of every load and the recent loads.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    void write(DataOutput out) throws IOException
+    {
+        BinaryIO.writeString(out, trainerName);
+        BinaryIO.writeString(out, workout);
+        out.writeInt(sessions);
+        out.writeInt(loadCounts.size());
+        for (Map.Entry<Double, LoadCount> e : loadCounts.entrySet())
+        {
+            out.writeDouble(e.getKey());
+            out.writeInt(e.getValue().count);
+            BinaryIO.writeTime(out, e.getValue().firstTime);
+        }
+        out.writeInt(recent);
+        for (int i = 0; i < recent; i++)
+        {
+            out.writeDouble(recentLoads[slot(i)]);
+            BinaryIO.writeTime(out, recentTimes[slot(i)]);
+        }
+    }
+
+    /**
+     * Reads a progression written by {@link #write(DataOutput)}.
+     *
+     * @param in where to read from.
+     * @return the progression.
+     * @throws IOException if reading fails.
+     */
+    static WorkoutProgression read(DataInput in) throws IOException
+    {
+        WorkoutProgression progression = new WorkoutProgression(BinaryIO.readString(in), BinaryIO.readString(in));
+        progression.sessions = in.readInt();
+        int loads = in.readInt();
+        for (int i = 0; i < loads; i++)
+        {
+            double load = in.readDouble();
+            int count = in.readInt();
+            LoadCount loadCount = new LoadCount(BinaryIO.readTime(in));
+            loadCount.count = count;
+            progression.loadCounts.put(load, loadCount);
+        }
+        progression.updatePersonalRecord();
+
+        int recent = in.readInt();
+        if (recent < 0 || recent > HISTORY)
+        {
+            throw new IOException("Invalid number of recent loads: " + recent);
+        }
+        for (int i = 0; i < recent; i++)
+        {
+            progression.recentLoads[i] = in.readDouble();
+            progression.recentTimes[i] = BinaryIO.readTime(in);
+        }
+        progression.recent = recent;
+        return progression;
+    }
+
+    /**
+     * The trainer.
+     *
+     * @return the trainer name.
+     */
+    public String getTrainerName()
+    {
+        return trainerName;
+    }
+
+    /**
+     * The workout.
+     *
+     * @return the workout.
+     */
+    public String getWorkout()
+    {
+        return workout;
+    }
+
+    /**
+     * The number of entries for this trainer and workout.
+     *
+     * @return the number of entries.
+     */
+    public int getSessions()
+    {
+        return sessions;
+    }
+
+    /**
+     * The heaviest load logged by an entry that has not been deleted.
+     *
+     * @return the personal record in kg, or NaN if no entry mentioned a load.
+     */
+    public double getPersonalRecord()
+    {
+        return personalRecord;
+    }
+
+    /**
+     * When the personal record was logged.
+     *
+     * @return the time of the personal record, or null if there is none.
+     */
+    public LocalDateTime getPersonalRecordTime()
+    {
+        return personalRecordTime;
+    }
+
+    /**
+     * The average of the last {@value #HISTORY} loads.
+     *
+     * @return the moving average in kg, or NaN if no entry mentioned a load.
+     */
+    public double getMovingAverage()
+    {
+        if (recent == 0)
+        {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (int i = 0; i < recent; i++)
+        {
+            sum += recentLoads[slot(i)];
+        }
+        return sum / recent;
+    }
+
+    /**
+     * The average of the newer half of the recent loads minus the average of the older half.
+     * A positive trend means the loads are going up.
+     *
+     * @return the trend in kg, or 0 if fewer than two loads have been logged.
+     */
+    public double getTrend()
+    {
+        if (recent < 2)
+        {
+            return 0;
+        }
+        int half = recent / 2;
+        double older = 0;
+        double newer = 0;
+        for (int i = 0; i < half; i++)
+        {
+            older += recentLoads[slot(i)];
+            newer += recentLoads[slot(recent - 1 - i)];
+        }
+        return (newer - older) / half;
+    }
+
+    /**
+     * The last {@value #HISTORY} loads, oldest first.
+     *
+     * @return a list of the recent loads in kg.
+     */
+    public List<Double> getRecentLoads()
+    {
+        List<Double> result = new ArrayList<>(recent);
+        for (int i = 0; i < recent; i++)
+        {
+            result.add(recentLoads[slot(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of the progression.
+     *
+     * @return a string representation of the progression.
+     */
+    @Override
+    public String toString()
+    {
+        if (Double.isNaN(personalRecord))
+        {
+            return workout + ": " + sessions + " sessions, no loads logged";
+        }
+        return String.format("%s: %d sessions, PR %.1f kg (%s), average of last %d %.1f kg, trend %+.1f kg",
+                workout, sessions, personalRecord, personalRecordTime.toLocalDate(), recent, getMovingAverage(), getTrend());
+    }
+}
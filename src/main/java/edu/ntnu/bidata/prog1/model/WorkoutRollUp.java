@@ -0,0 +1,104 @@
+package edu.ntnu.bidata.prog1.model;
+
+import java.time.LocalDate;
+
+/**
+ * The number of workout entries one trainer logged for one workout on one day,
+ * kept in place of the entries themselves once they have been rolled up.
+ *
+ * @author Binit Dhungana
+ * @version 2026-10-19
+ */
+public class WorkoutRollUp
+{
+    private final LocalDate date;
+    private final String trainerName;
+    private final String workout;
+    private final int count;
+
+    /**
+     * Create an instance of WorkoutRollUp.
+     *
+     * @param date        the day the entries were logged.
+     * @param trainerName the trainer who logged the entries.
+     * @param workout     the type of workout.
+     * @param count       the number of entries.
+     * @throws IllegalArgumentException if date is null, trainerName or workout is null or blank,
+     *                                  or count is not positive.
+     */
+    public WorkoutRollUp(LocalDate date, String trainerName, String workout, int count)
+    {
+        if (date == null)
+        {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        if (trainerName == null || trainerName.isBlank())
+        {
+            throw new IllegalArgumentException("Trainer name cannot be null or blank");
+        }
+        if (workout == null || workout.isBlank())
+        {
+            throw new IllegalArgumentException("Workout cannot be null or blank");
+        }
+        if (count <= 0)
+        {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+
+        this.date = date;
+        this.trainerName = trainerName;
+        this.workout = workout;
+        this.count = count;
+    }
+
+    /**
+     * The day the entries were logged.
+     *
+     * @return the day the entries were logged.
+     */
+    public LocalDate getDate()
+    {
+        return date;
+    }
+
+    /**
+     * The trainer who logged the entries.
+     *
+     * @return the trainer who logged the entries.
+     */
+    public String getTrainerName()
+    {
+        return trainerName;
+    }
+
+    /**
+     * The type of workout.
+     *
+     * @return the type of workout.
+     */
+    public String getWorkout()
+    {
+        return workout;
+    }
+
+    /**
+     * The number of entries rolled up.
+     *
+     * @return the number of entries rolled up.
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns a string representation of the roll-up.
+     *
+     * @return a string representation of the roll-up.
+     */
+    @Override
+    public String toString()
+    {
+        return date + " " + trainerName + " - " + workout + " (" + count + ")";
+    }
+}
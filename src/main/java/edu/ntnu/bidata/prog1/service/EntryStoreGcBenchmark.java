@@ -0,0 +1,156 @@
+package edu.ntnu.bidata.prog1.service;
+
+import edu.ntnu.bidata.prog1.model.ArrayListEntryStore;
+import edu.ntnu.bidata.prog1.model.CompressedTextEntryStore;
+import edu.ntnu.bidata.prog1.model.OffHeapEntryStore;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares garbage collection pauses with the entries kept on the heap and off the heap.
+ * For each store, a book is filled with the given number of entries, and then while the book
+ * is still in use the benchmark measures how long full collections take and how much time
+ * the collector spends while the application allocates short-lived objects.
+ * For the store with compressed texts, the compression ratio and the time to read a text are reported too.
+ * <p>
+ * Run with the number of entries as the only argument, for example
+ * {@code java -Xmx4g -cp target/classes edu.ntnu.bidata.prog1.service.EntryStoreGcBenchmark 5000000}.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class EntryStoreGcBenchmark
+{
+    private static final String[] TRAINERS = {"Binit", "Anish", "Omkar", "Shraddha", "Sabin", "Arne"};
+    private static final String[] WORKOUTS = {"Squat", "Bench Press", "Dead-lift", "Biceps", "Triceps"};
+    private static final int FULL_GCS = 5;
+    private static final int CHURN_ROUNDS = 500;
+
+    // Keeps the churn from being optimised away
+    private static long sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the number of entries to add, 1 000 000 if not given.
+     */
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.printf("%-10s %12s %12s %14s %14s %14s%n",
+                "store", "entries", "heap MB", "full gc avg ms", "full gc max ms", "churn gc ms");
+        run("heap", ArrayListEntryStore::new, count);
+        run("off-heap", OffHeapEntryStore::new, count);
+        run("compressed", CompressedTextEntryStore::new, count);
+    }
+
+    /**
+     * Fills a book using the given store and prints its measurements.
+     */
+    private static void run(String name, Supplier<WorkoutEntryStore> stores, int count)
+    {
+        try (WorkoutEntryStore store = stores.get())
+        {
+            WorkoutEntryBook book = new WorkoutEntryBook(store);
+            LocalDateTime start = LocalDateTime.of(2020, 1, 1, 6, 0);
+            for (int i = 0; i < count; i++)
+            {
+                book.addEntry(new WorkoutEntry(TRAINERS[i % TRAINERS.length], WORKOUTS[i % WORKOUTS.length],
+                        "Warm-up, then " + (3 + i % 3) + " working sets of " + (8 + i % 5) + " reps at "
+                                + (20 + i % 100) + " kg", start.plusMinutes(i)));
+            }
+
+            long totalFull = 0;
+            long maxFull = 0;
+            for (int i = 0; i < FULL_GCS; i++)
+            {
+                long t0 = System.nanoTime();
+                System.gc();
+                long nanos = System.nanoTime() - t0;
+                totalFull += nanos;
+                maxFull = Math.max(maxFull, nanos);
+            }
+            Runtime rt = Runtime.getRuntime();
+            long heapUsed = rt.totalMemory() - rt.freeMemory();
+
+            long gcBefore = gcMillis();
+            for (int round = 0; round < CHURN_ROUNDS; round++)
+            {
+                for (int i = 0; i < 100_000; i++)
+                {
+                    sink += new StringBuilder("set ").append(i).toString().length();
+                }
+                sink += book.getNumberOfEntries();
+            }
+            long churnGc = gcMillis() - gcBefore;
+
+            System.out.printf("%-10s %12d %12.1f %14.2f %14.2f %14d%n", name, book.getNumberOfEntries(),
+                    heapUsed / 1024.0 / 1024.0, totalFull / 1e6 / FULL_GCS, maxFull / 1e6, churnGc);
+
+            if (store instanceof CompressedTextEntryStore compressed)
+            {
+                reportCompression(book, compressed);
+            }
+        }
+        System.gc();
+    }
+
+    /**
+     * Reads the text of every entry in order, then of entries spread over the book, and prints
+     * the compression ratio and how long a text took to read in each case.
+     */
+    private static void reportCompression(WorkoutEntryBook book, CompressedTextEntryStore store)
+    {
+        Iterator<WorkoutEntry> it = book.getIterator();
+        while (it.hasNext())
+        {
+            sink += it.next().getText().length();
+        }
+        double sequential = store.getAverageTextReadMicros();
+        double sequentialHits = store.getTextCacheHitRate();
+
+        List<WorkoutEntry> spread = new ArrayList<>();
+        for (String workout : WORKOUTS)
+        {
+            List<WorkoutEntry> matches = book.findByWorkout(workout);
+            for (int i = 0; i < matches.size(); i += 997)
+            {
+                spread.add(matches.get(i));
+            }
+        }
+        long t0 = System.nanoTime();
+        for (WorkoutEntry entry : spread)
+        {
+            sink += entry.getText().length();
+        }
+        double scattered = (System.nanoTime() - t0) / 1e3 / Math.max(1, spread.size());
+
+        System.out.printf("%-10s compression ratio %.1f (%.1f MB of text), sequential read %.2f us (%.0f%% cached),"
+                        + " scattered read %.2f us%n",
+                "", store.getCompressionRatio(), store.getCompressedTextSize() / 1024.0 / 1024.0,
+                sequential, sequentialHits * 100, scattered);
+    }
+
+    /**
+     * Returns the total time all garbage collectors have spent collecting so far, in milliseconds.
+     */
+    private static long gcMillis()
+    {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,252 @@
+package edu.ntnu.bidata.prog1.service;
+
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryGenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a mixed workload of searches, statistics, additions and deletions against a
+ * {@link WorkoutEntryBook} filled by a {@link WorkoutEntryGenerator}, and reports the
+ * throughput and the latency percentiles of each kind of operation.
+ * The same arguments give the same book and the same sequence of operations on each thread.
+ * <p>
+ * Run with up to five arguments, all optional:
+ * {@code java -cp target/classes edu.ntnu.bidata.prog1.service.WorkloadDriver
+ * [entries] [operations] [write share] [threads] [seed]},
+ * for example {@code 1000000 200000 0.1 4 42}.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkloadDriver
+{
+    private static final int TRAINERS = 500;
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    // Operations, and the share of reads each read operation gets
+    private static final String[] OPERATIONS = {
+        "add", "delete", "trainer", "workout", "date", "range", "stats", "top", "progression"
+    };
+    private static final double[] READ_SHARES = {0, 0, 0.25, 0.15, 0.2, 0.1, 0.1, 0.1, 0.1};
+
+    // Share of writes that are deletions
+    private static final double DELETE_SHARE = 0.1;
+
+    /**
+     * What one thread measured: the latencies per kind of operation, and a sum of numbers taken from
+     * the results, which is printed so the work is not optimised away. Each thread keeps its own sum,
+     * so the threads do not write to a shared field while they are measured.
+     */
+    private record ThreadResult(Latencies[] latencies, long sink)
+    {
+    }
+
+    /**
+     * Latencies of one kind of operation, in nanoseconds.
+     */
+    private static class Latencies
+    {
+        private long[] nanos = new long[1024];
+        private int count;
+
+        private void add(long value)
+        {
+            if (count == nanos.length)
+            {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+        }
+
+        private void addAll(Latencies other)
+        {
+            for (int i = 0; i < other.count; i++)
+            {
+                add(other.nanos[i]);
+            }
+        }
+
+        /**
+         * Returns the latency below which the given share of operations finished, in microseconds.
+         * The latencies must be sorted first.
+         */
+        private double percentile(double share)
+        {
+            int index = (int) Math.ceil(share * count) - 1;
+            return nanos[Math.max(0, index)] / 1e3;
+        }
+    }
+
+    /**
+     * Runs the workload.
+     *
+     * @param args the number of entries to start with, the number of operations per thread,
+     *             the share of operations that write, the number of threads and the seed.
+     * @throws Exception if a thread fails.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        double writeShare = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        if (entries < 0 || operations <= 0 || writeShare < 0 || writeShare > 1 || threads <= 0)
+        {
+            System.err.println("Usage: WorkloadDriver [entries] [operations] [write share 0-1] [threads] [seed]");
+            System.exit(2);
+        }
+
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        long t0 = System.nanoTime();
+        new WorkoutEntryGenerator(seed, TRAINERS, FROM, TO).fill(book, entries);
+        System.out.printf("Filled %d entries in %.0f ms%n", entries, (System.nanoTime() - t0) / 1e6);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<ThreadResult>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++)
+        {
+            long threadSeed = seed + 1 + t;
+            results.add(pool.submit(() -> run(book, threadSeed, operations, writeShare)));
+        }
+        Latencies[] all = new Latencies[OPERATIONS.length];
+        for (int i = 0; i < all.length; i++)
+        {
+            all[i] = new Latencies();
+        }
+        long sink = 0;
+        for (Future<ThreadResult> result : results)
+        {
+            ThreadResult done = result.get();
+            for (int i = 0; i < all.length; i++)
+            {
+                all[i].addAll(done.latencies()[i]);
+            }
+            sink += done.sink();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        report(all, seconds, threads);
+        System.out.println("Entries at the end: " + book.getNumberOfEntries() + ", checksum " + sink);
+    }
+
+    /**
+     * Runs the operations of one thread and returns their latencies, per kind of operation.
+     */
+    private static ThreadResult run(WorkoutEntryBook book, long seed, int operations, double writeShare)
+    {
+        WorkoutEntryGenerator generator = new WorkoutEntryGenerator(seed, TRAINERS, FROM, TO);
+        SplittableRandom random = new SplittableRandom(seed);
+        Latencies[] latencies = new Latencies[OPERATIONS.length];
+        for (int i = 0; i < latencies.length; i++)
+        {
+            latencies[i] = new Latencies();
+        }
+
+        long sink = 0;
+        for (int i = 0; i < operations; i++)
+        {
+            int operation = pickOperation(random, writeShare);
+            long t0 = System.nanoTime();
+            sink += execute(book, generator, random, operation);
+            latencies[operation].add(System.nanoTime() - t0);
+        }
+        return new ThreadResult(latencies, sink);
+    }
+
+    /**
+     * Picks the next operation: a write with the given share, otherwise a read by READ_SHARES.
+     */
+    private static int pickOperation(SplittableRandom random, double writeShare)
+    {
+        if (random.nextDouble() < writeShare)
+        {
+            return random.nextDouble() < DELETE_SHARE ? 1 : 0;
+        }
+        double r = random.nextDouble();
+        for (int op = 2; op < OPERATIONS.length - 1; op++)
+        {
+            r -= READ_SHARES[op];
+            if (r < 0)
+            {
+                return op;
+            }
+        }
+        return OPERATIONS.length - 1;
+    }
+
+    /**
+     * Runs one operation against the book.
+     *
+     * @return a number taken from the result, so the work is not optimised away.
+     */
+    private static long execute(WorkoutEntryBook book, WorkoutEntryGenerator generator,
+                                SplittableRandom random, int operation)
+    {
+        return switch (OPERATIONS[operation])
+        {
+            case "add" ->
+            {
+                book.addEntry(generator.next());
+                yield 1;
+            }
+            case "delete" ->
+            {
+                int size = book.getNumberOfEntries();
+                yield size > 0 && book.deleteByIndex(random.nextInt(size)) ? 1 : 0;
+            }
+            case "trainer" -> book.findByTrainerName(generator.nextTrainer()).size();
+            case "workout" -> book.findByWorkout(generator.nextWorkout()).size();
+            case "date" -> book.findByDate(generator.nextTimestamp().toLocalDate()).size();
+            case "range" ->
+            {
+                LocalDate from = generator.nextTimestamp().toLocalDate();
+                yield book.findByDateRange(from, from.plusDays(6)).size();
+            }
+            case "stats" -> book.getTrainerStats().size();
+            case "top" -> book.getTopTrainers(10).size() + book.getTopWorkouts(10).size();
+            default ->
+            {
+                var progression = book.getProgression(generator.nextTrainer(), generator.nextWorkout());
+                yield progression == null ? 0 : progression.getSessions();
+            }
+        };
+    }
+
+    /**
+     * Prints the throughput and the latency percentiles of each kind of operation.
+     */
+    private static void report(Latencies[] all, double seconds, int threads)
+    {
+        long total = 0;
+        System.out.printf("%-12s %10s %12s %12s %12s %12s %12s%n",
+                "operation", "count", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (int i = 0; i < all.length; i++)
+        {
+            Latencies latencies = all[i];
+            if (latencies.count == 0)
+            {
+                continue;
+            }
+            Arrays.sort(latencies.nanos, 0, latencies.count);
+            total += latencies.count;
+            System.out.printf("%-12s %10d %12.1f %12.1f %12.1f %12.1f %12.1f%n", OPERATIONS[i], latencies.count,
+                    latencies.percentile(0.5), latencies.percentile(0.9), latencies.percentile(0.99),
+                    latencies.percentile(0.999), latencies.percentile(1));
+        }
+        System.out.printf("%d operations on %d threads in %.2f s: %.0f operations per second%n",
+                total, threads, seconds, total / seconds);
+    }
+}
@@ -1,11 +1,24 @@
 package edu.ntnu.bidata.prog1.service;
 
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.ui.WorkoutEntryBatch;
 import edu.ntnu.bidata.prog1.ui.WorkoutEntryUi;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * The main application class for the Workout Entry Book.
  * It initializes and starts the user interface and starting the console-based interaction
- * for managing workout entries.
+ * for managing workout entries, or runs a file of commands against a saved book when started in batch mode.
  *
  * @version 2025-09-29
  * @author Binit Dhungana
@@ -15,17 +28,96 @@ public class WorkoutEntryBookApp
     /**
      * Starts the Workout Entry Book application.
      *<p>
-     * This method initializes the UI and loads any predefines
+     * Without arguments, this method initializes the UI and loads any predefines
      * test data, and start the main interaction loop where users can add, list,
      * search, and delete workout entries.
      *</p>
+     *<p>
+     * With {@code --batch [--book bookfile] [file]}, the commands in the file are run without any prompts.
+     * If no file or {@code -} is given, the commands are read from standard input.
+     * With {@code --book}, the commands run against the book saved in the book file, which is created
+     * if it does not exist, and the book is saved back only if every command succeeded.
+     * Without it they run against an empty book that is discarded afterwards.
+     *</p>
      * @param args command-line arguments.
      */
     public static void main(String[] args)
     {
-        WorkoutEntryUi workoutEntryUi = new WorkoutEntryUi();
-        workoutEntryUi.init();
-        workoutEntryUi.start();
+        if (args.length == 0)
+        {
+            WorkoutEntryUi workoutEntryUi = new WorkoutEntryUi();
+            workoutEntryUi.init();
+            workoutEntryUi.start();
+            return;
+        }
+
+        int next = 1;
+        Path bookFile = null;
+        if (args.length >= 3 && args[1].equals("--book"))
+        {
+            bookFile = Path.of(args[2]);
+            next = 3;
+        }
+        if (!args[0].equals("--batch") || args.length > next + 1)
+        {
+            System.err.println("Usage: WorkoutEntryBookApp [--batch [--book bookfile] [file|-]]");
+            System.exit(2);
+        }
+
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        if (bookFile != null && Files.exists(bookFile))
+        {
+            try
+            {
+                book = WorkoutEntryBookStorage.load(bookFile);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not load book: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        String file = args.length > next ? args[next] : "-";
+        WorkoutEntryBatch batch = new WorkoutEntryBatch(book);
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        int status;
+        try (BufferedReader in = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : new BufferedReader(new FileReader(file, StandardCharsets.UTF_8)))
+        {
+            status = batch.run(in, out);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read commands: " + e.getMessage());
+            status = 1;
+        }
+
+        if (bookFile != null && status == 0)
+        {
+            try
+            {
+                WorkoutEntryBookStorage.save(book, bookFile);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Could not save book: " + e.getMessage());
+                status = 1;
+            }
+        }
+        else if (bookFile != null)
+        {
+            System.err.println("Not saving the book, since some commands failed");
+        }
+        if (out.checkError())
+        {
+            System.err.println("Could not write output");
+        }
+        if (status != 0)
+        {
+            System.exit(status);
+        }
     }
 }
-
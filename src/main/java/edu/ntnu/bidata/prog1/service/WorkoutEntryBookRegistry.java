@@ -0,0 +1,499 @@
+package edu.ntnu.bidata.prog1.service;
+
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutEntrySketches;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Holds the workout entry books of many gyms in one application.
+ * Books are kept in memory while they are used. When the estimated size of all books in memory
+ * goes over the memory budget, or a book has not been used for a while, it is saved to a file
+ * in the registry's directory and dropped from memory. It is loaded again the next time it is used.
+ *
+ * <p>
+ * Books are only reached through {@link #withBook(String, Function)}, so a book is never saved
+ * and dropped while someone is using it. Books are saved without holding the registry's lock,
+ * so work on one gym's book does not wait for other gyms to be saved.
+ * </p>
+ *
+ * <p>
+ * The budget is compared with {@link WorkoutEntryBook#getEstimatedSize()}, which includes about
+ * 50 KB of fixed overhead per book for its fingerprint table and history, and 80 KB more for its sketches
+ * once it has entries, so the budget should allow for several small books. The book that was just used is never dropped to fit the
+ * budget, so a budget smaller than one book keeps that book in memory instead of reloading it on every use.
+ * </p>
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryBookRegistry implements AutoCloseable
+{
+    private final Path directory;
+    private final long memoryBudget;
+    private final Duration idleTimeout;
+
+    // One slot per gym that has been used, whether its book is in memory or on disk
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    private ScheduledExecutorService idleEvictor;
+
+    // Metrics
+    private long residentSize;
+    private int residentBooks;
+    private long loads;
+    private long totalLoadNanos;
+    private long maxLoadNanos;
+    private long evictions;
+
+    /**
+     * A gym's book and what the registry knows about it.
+     */
+    private static class Slot
+    {
+        private final String gym;
+        private WorkoutEntryBook book;
+        private long estimatedSize;
+        private long lastUsed;
+        private int users;
+
+        private Slot(String gym)
+        {
+            this.gym = gym;
+        }
+    }
+
+    /**
+     * A slot that may be evicted, with the time it was last used as read under the registry's lock.
+     */
+    private record Candidate(Slot slot, long lastUsed)
+    {
+    }
+
+    /**
+     * Creates a registry that keeps its saved books in the given directory.
+     *
+     * @param directory    the directory to save books in. It is created if it does not exist.
+     * @param memoryBudget the largest estimated size, in bytes, of all books kept in memory.
+     * @param idleTimeout  how long a book may go unused before {@link #evictIdle()} drops it.
+     * @throws IllegalArgumentException if the directory or timeout is null,
+     *                                  or the budget or timeout is not positive.
+     * @throws UncheckedIOException     if the directory cannot be created.
+     */
+    public WorkoutEntryBookRegistry(Path directory, long memoryBudget, Duration idleTimeout)
+    {
+        if (directory == null || idleTimeout == null)
+        {
+            throw new IllegalArgumentException("Directory and idle timeout cannot be null");
+        }
+        if (memoryBudget <= 0 || idleTimeout.isNegative() || idleTimeout.isZero())
+        {
+            throw new IllegalArgumentException("Memory budget and idle timeout must be positive");
+        }
+
+        try
+        {
+            Files.createDirectories(directory);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Runs an action on a gym's book. The book is loaded from disk if it was dropped from memory,
+     * or created empty if the gym is new. While the action runs, the book stays in memory and
+     * no other thread can use it. The book must not be kept and used after the action returns.
+     *
+     * @param gym    the name of the gym.
+     * @param action what to do with the book.
+     * @param <T>    the type of the action's result.
+     * @return the result of the action.
+     * @throws IllegalArgumentException if the gym is null or blank, or the action is null.
+     * @throws UncheckedIOException     if the book or another book cannot be read or saved.
+     */
+    public <T> T withBook(String gym, Function<WorkoutEntryBook, T> action)
+    {
+        if (gym == null || gym.isBlank())
+        {
+            throw new IllegalArgumentException("Gym name cannot be null or blank");
+        }
+        if (action == null)
+        {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+
+        Slot slot;
+        synchronized (this)
+        {
+            slot = slots.computeIfAbsent(gym.trim(), Slot::new);
+            slot.users++;
+        }
+
+        long size = -1;
+        try
+        {
+            synchronized (slot)
+            {
+                if (slot.book == null)
+                {
+                    load(slot);
+                }
+                try
+                {
+                    return action.apply(slot.book);
+                }
+                finally
+                {
+                    size = slot.book.getEstimatedSize();
+                }
+            }
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                slot.users--;
+                slot.lastUsed = System.nanoTime();
+                if (size >= 0)
+                {
+                    if (slot.estimatedSize < 0)
+                    {
+                        residentBooks++;
+                        slot.estimatedSize = 0;
+                    }
+                    residentSize += size - slot.estimatedSize;
+                    slot.estimatedSize = size;
+                }
+            }
+            evictOverBudget(slot);
+        }
+    }
+
+    /**
+     * Merges the sketches of several gyms' books, for approximate statistics across the gyms
+     * without scanning their entries. Each book is used in turn, so books may be loaded from disk.
+     *
+     * @param gyms the names of the gyms.
+     * @return the merged sketches.
+     * @throws IllegalArgumentException if gyms is null or holds a null or blank name.
+     * @throws UncheckedIOException     if a book cannot be read or saved.
+     */
+    public WorkoutEntrySketches mergeSketches(Collection<String> gyms)
+    {
+        if (gyms == null)
+        {
+            throw new IllegalArgumentException("Gyms cannot be null");
+        }
+        WorkoutEntrySketches merged = new WorkoutEntrySketches();
+        for (String gym : gyms)
+        {
+            merged.merge(withBook(gym, WorkoutEntryBook::getSketches));
+        }
+        return merged;
+    }
+
+    /**
+     * Loads the slot's book from its file, or creates an empty book if there is no file.
+     * Marks the slot as not yet counted, so its size is added when the action is done.
+     */
+    private void load(Slot slot)
+    {
+        long t0 = System.nanoTime();
+        Path file = fileFor(slot.gym);
+        try
+        {
+            slot.book = Files.exists(file) ? WorkoutEntryBookStorage.load(file) : new WorkoutEntryBook();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        long nanos = System.nanoTime() - t0;
+        synchronized (this)
+        {
+            slot.estimatedSize = -1;
+            loads++;
+            totalLoadNanos += nanos;
+            maxLoadNanos = Math.max(maxLoadNanos, nanos);
+        }
+    }
+
+    /**
+     * Saves and drops the least recently used books that are not in use
+     * until the books in memory fit in the memory budget. The book that was just used is kept.
+     *
+     * @param justUsed the slot whose book was just used.
+     */
+    private void evictOverBudget(Slot justUsed)
+    {
+        List<Candidate> candidates = new ArrayList<>();
+        synchronized (this)
+        {
+            if (residentSize <= memoryBudget)
+            {
+                return;
+            }
+            for (Slot slot : slots.values())
+            {
+                if (slot != justUsed && isIdle(slot))
+                {
+                    candidates.add(new Candidate(slot, slot.lastUsed));
+                }
+            }
+        }
+        // sort the copied times, which other threads cannot change while sorting
+        candidates.sort(Comparator.comparingLong(Candidate::lastUsed));
+
+        for (Candidate candidate : candidates)
+        {
+            synchronized (this)
+            {
+                if (residentSize <= memoryBudget)
+                {
+                    return;
+                }
+            }
+            evict(candidate.slot());
+        }
+    }
+
+    /**
+     * Saves and drops every book that is not in use and has not been used for longer than the idle timeout.
+     *
+     * @return the number of books dropped from memory.
+     * @throws UncheckedIOException if a book cannot be saved.
+     */
+    public int evictIdle()
+    {
+        List<Slot> candidates = new ArrayList<>();
+        synchronized (this)
+        {
+            long now = System.nanoTime();
+            for (Slot slot : slots.values())
+            {
+                if (isIdle(slot) && now - slot.lastUsed > idleTimeout.toNanos())
+                {
+                    candidates.add(slot);
+                }
+            }
+        }
+
+        int evicted = 0;
+        for (Slot slot : candidates)
+        {
+            if (evict(slot))
+            {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns true if the slot's book is in memory, counted in the resident size and not in use.
+     * Must only be called while holding the registry's lock.
+     */
+    private boolean isIdle(Slot slot)
+    {
+        return slot.book != null && slot.users == 0 && slot.estimatedSize >= 0;
+    }
+
+    /**
+     * Saves the slot's book and drops it from memory, unless someone started using it in the meantime.
+     * Must not be called while holding the registry's lock: the book is saved holding only the slot's lock,
+     * so other gyms can be used while it is written.
+     *
+     * @return true if the book was dropped.
+     */
+    private boolean evict(Slot slot)
+    {
+        synchronized (slot)
+        {
+            synchronized (this)
+            {
+                if (!isIdle(slot))
+                {
+                    return false;
+                }
+            }
+            try
+            {
+                WorkoutEntryBookStorage.save(slot.book, fileFor(slot.gym));
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            synchronized (this)
+            {
+                // someone is waiting for this book, so it stays in memory; the file is up to date anyway
+                if (slot.users > 0)
+                {
+                    return false;
+                }
+                slot.book = null;
+                residentSize -= slot.estimatedSize;
+                residentBooks--;
+                slot.estimatedSize = 0;
+                evictions++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Starts a background thread that calls {@link #evictIdle()} at the given interval.
+     * Does nothing if the thread has already been started.
+     *
+     * @param interval how often to look for idle books.
+     * @throws IllegalArgumentException if the interval is null or not positive.
+     */
+    public synchronized void startIdleEviction(Duration interval)
+    {
+        if (interval == null || interval.isNegative() || interval.isZero())
+        {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (idleEvictor != null)
+        {
+            return;
+        }
+
+        idleEvictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "book-idle-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        idleEvictor.scheduleWithFixedDelay(() -> {
+            try
+            {
+                evictIdle();
+            }
+            catch (UncheckedIOException e)
+            {
+                // the book stays in memory and is tried again next time
+                System.err.println("Could not save idle book: " + e.getMessage());
+            }
+        }, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the file a gym's book is saved in. The gym name is encoded so any name gives a valid file name.
+     */
+    private Path fileFor(String gym)
+    {
+        return directory.resolve(URLEncoder.encode(gym, StandardCharsets.UTF_8) + ".book");
+    }
+
+    /**
+     * Returns the number of books currently in memory.
+     *
+     * @return the number of books currently in memory.
+     */
+    public synchronized int getResidentBooks()
+    {
+        return residentBooks;
+    }
+
+    /**
+     * Returns the estimated size, in bytes, of all books currently in memory.
+     *
+     * @return the estimated size of the books in memory.
+     */
+    public synchronized long getResidentSize()
+    {
+        return residentSize;
+    }
+
+    /**
+     * Returns the number of times a book has been loaded or created.
+     *
+     * @return the number of loads.
+     */
+    public synchronized long getLoads()
+    {
+        return loads;
+    }
+
+    /**
+     * Returns the average time spent loading a book, in milliseconds.
+     *
+     * @return the average load time, or 0 if no book has been loaded.
+     */
+    public synchronized double getAverageLoadMillis()
+    {
+        return loads == 0 ? 0 : totalLoadNanos / 1e6 / loads;
+    }
+
+    /**
+     * Returns the longest time spent loading a book, in milliseconds.
+     *
+     * @return the longest load time.
+     */
+    public synchronized double getMaxLoadMillis()
+    {
+        return maxLoadNanos / 1e6;
+    }
+
+    /**
+     * Returns the number of times a book has been saved and dropped from memory.
+     *
+     * @return the number of evictions.
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Stops the background thread and saves every book still in memory.
+     *
+     * @throws UncheckedIOException if a book cannot be saved.
+     */
+    @Override
+    public void close()
+    {
+        List<Slot> resident = new ArrayList<>();
+        synchronized (this)
+        {
+            if (idleEvictor != null)
+            {
+                idleEvictor.shutdownNow();
+                idleEvictor = null;
+            }
+            for (Slot slot : slots.values())
+            {
+                if (isIdle(slot))
+                {
+                    resident.add(slot);
+                }
+            }
+        }
+        for (Slot slot : resident)
+        {
+            evict(slot);
+        }
+    }
+}
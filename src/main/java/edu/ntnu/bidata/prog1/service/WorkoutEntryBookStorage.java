@@ -0,0 +1,147 @@
+package edu.ntnu.bidata.prog1.service;
+
+import edu.ntnu.bidata.prog1.model.BinaryIO;
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutRollUp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Saves a WorkoutEntryBook to a file and loads it back.
+ * The file holds the registered trainers, every entry in the order they were added,
+ * the daily roll-ups of old entries and the retention policies, followed by the state the book
+ * cannot rebuild from entries whose text retention has dropped, such as their fingerprints, and the
+ * history of versions so the loaded book can be searched as of times before it was loaded.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public final class WorkoutEntryBookStorage
+{
+    // Marks the start of a book file, followed by the format version
+    private static final int MAGIC = 0x57454231;
+    private static final int VERSION = 1;
+
+    private WorkoutEntryBookStorage()
+    {
+    }
+
+    /**
+     * Writes the book to the given file, replacing it if it exists.
+     * The book is first written to a temporary file next to it, so a failed save never
+     * leaves a half-written file behind. Other threads cannot change the book while it is written.
+     *
+     * @param book the book to save.
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(WorkoutEntryBook book, Path file) throws IOException
+    {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+        {
+            // hold the book's lock so retention cannot change it halfway through
+            synchronized (book)
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                List<String> trainers = book.getTrainers();
+                out.writeInt(trainers.size());
+                for (String trainer : trainers)
+                {
+                    BinaryIO.writeString(out, trainer);
+                }
+
+                out.writeInt(book.getNumberOfEntries());
+                Iterator<WorkoutEntry> it = book.getIterator();
+                while (it.hasNext())
+                {
+                    BinaryIO.writeEntry(out, it.next());
+                }
+
+                List<WorkoutRollUp> rollUps = book.getRollUps();
+                out.writeInt(rollUps.size());
+                for (WorkoutRollUp r : rollUps)
+                {
+                    BinaryIO.writeString(out, r.getDate().toString());
+                    BinaryIO.writeString(out, r.getTrainerName());
+                    BinaryIO.writeString(out, r.getWorkout());
+                    out.writeInt(r.getCount());
+                }
+
+                List<RetentionPolicy> policies = book.getRetentionPolicies();
+                out.writeInt(policies.size());
+                for (RetentionPolicy policy : policies)
+                {
+                    BinaryIO.writeString(out, policy.getAge().toString());
+                    BinaryIO.writeString(out, policy.getAction().name());
+                }
+
+                book.writeState(out);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a book from the given file.
+     *
+     * @param file the file to read.
+     * @return a new book holding the saved trainers and entries.
+     * @throws IOException if the file cannot be read or is not a book file.
+     */
+    public static WorkoutEntryBook load(Path file) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                throw new IOException("Not a workout entry book file: " + file);
+            }
+
+            WorkoutEntryBook book = new WorkoutEntryBook();
+            int trainers = in.readInt();
+            for (int i = 0; i < trainers; i++)
+            {
+                book.registerTrainer(BinaryIO.readString(in));
+            }
+
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++)
+            {
+                book.addEntry(BinaryIO.readEntry(in));
+            }
+
+            int rollUps = in.readInt();
+            for (int i = 0; i < rollUps; i++)
+            {
+                book.addRollUp(new WorkoutRollUp(LocalDate.parse(BinaryIO.readString(in)), BinaryIO.readString(in),
+                        BinaryIO.readString(in), in.readInt()));
+            }
+
+            int policies = in.readInt();
+            for (int i = 0; i < policies; i++)
+            {
+                book.addRetentionPolicy(new RetentionPolicy(Period.parse(BinaryIO.readString(in)),
+                        RetentionPolicy.Action.valueOf(BinaryIO.readString(in))));
+            }
+
+            book.readState(in);
+            return book;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.ntnu.bidata.prog1.service;
+
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a book's retention policies on a background thread at a fixed interval,
+ * and compacts the book's history of versions older than its history retention.
+ * The book processes old entries in small batches, so the application can keep adding
+ * and searching entries while retention runs.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryRetention implements AutoCloseable
+{
+    private final WorkoutEntryBook book;
+    private final ScheduledExecutorService executor;
+
+    private volatile int lastChanged;
+    private volatile long totalChanged;
+    private volatile long totalCompacted;
+    private volatile int failedRuns;
+
+    /**
+     * Starts applying the book's retention policies at the given interval.
+     * The first run starts right away.
+     *
+     * @param book     the book to apply retention to.
+     * @param interval the time between the end of one run and the start of the next.
+     * @throws IllegalArgumentException if the book or interval is null, or the interval is not positive.
+     */
+    public WorkoutEntryRetention(WorkoutEntryBook book, Duration interval)
+    {
+        if (book == null)
+        {
+            throw new IllegalArgumentException("Workout entry book cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero())
+        {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+
+        this.book = book;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "workout-retention");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::run, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Applies the retention policies and compacts the history once, at the time of the book's clock.
+     * A failed run is reported and the next run goes ahead as planned, since an exception
+     * would otherwise cancel every later run.
+     */
+    private void run()
+    {
+        try
+        {
+            LocalDateTime now = LocalDateTime.now(book.getClock());
+            lastChanged = book.applyRetention(now);
+            totalChanged += lastChanged;
+            totalCompacted += book.compactHistory(now);
+        }
+        catch (RuntimeException e)
+        {
+            failedRuns++;
+            System.err.println("Could not apply retention: " + e);
+        }
+    }
+
+    /**
+     * Returns the number of entries changed by the most recent run.
+     *
+     * @return the number of entries changed by the most recent run.
+     */
+    public int getLastChanged()
+    {
+        return lastChanged;
+    }
+
+    /**
+     * Returns the number of entries changed by all runs so far.
+     *
+     * @return the number of entries changed by all runs.
+     */
+    public long getTotalChanged()
+    {
+        return totalChanged;
+    }
+
+    /**
+     * Returns the number of deleted entries forgotten by history compaction in all runs so far.
+     *
+     * @return the number of deleted entries forgotten.
+     */
+    public long getTotalCompacted()
+    {
+        return totalCompacted;
+    }
+
+    /**
+     * Returns the number of runs that failed with an exception.
+     *
+     * @return the number of failed runs.
+     */
+    public int getFailedRuns()
+    {
+        return failedRuns;
+    }
+
+    /**
+     * Stops the background thread. A run that has already started is allowed to finish.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,236 @@
+package edu.ntnu.bidata.prog1.ui;
+
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs workout entry commands read from a file or a pipe, without any prompts.
+ * Each non-blank line is one command; lines starting with '#' are comments.
+ * All output is written to a buffered writer, and the time spent on each kind of
+ * command is reported when the input ends.
+ *
+ * <ul>
+ * <li>{@code add trainer | workout | text [| yyyy-MM-ddTHH:mm]} adds an entry, unless the same entry
+ * with the same timestamp is already in the book.</li>
+ * <li>{@code list} prints all entries.</li>
+ * <li>{@code trainer name} searches by trainer name.</li>
+ * <li>{@code workout title} searches by workout title.</li>
+ * <li>{@code date yyyy-MM-dd} searches by date.</li>
+ * <li>{@code range yyyy-MM-dd yyyy-MM-dd} searches by date range.</li>
+ * <li>{@code delete index} deletes an entry by its 0-based index.</li>
+ * <li>{@code stats} prints the trainers and their number of entries.</li>
+ * <li>{@code count} prints the number of entries.</li>
+ * <li>{@code duplicates} prints the number of duplicate entries that were not added.</li>
+ * </ul>
+ *
+ * @author Binit Dhungana
+ * @version 2026-10-19
+ */
+public class WorkoutEntryBatch {
+
+    // The commands this batch understands; others fail without a timing row
+    private static final Set<String> COMMANDS = Set.of("add", "list", "trainer", "workout", "date",
+            "range", "delete", "stats", "count", "duplicates");
+
+    private final WorkoutEntryBook workoutEntryBook;
+
+    // Timings per command name, in the order the commands were first seen
+    private final Map<String, CommandTiming> timings = new LinkedHashMap<>();
+
+    private int failedCommands;
+
+    /**
+     * Running totals for one kind of command.
+     */
+    private static class CommandTiming {
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+    }
+
+    /**
+     * Constructs a WorkoutEntryBatch working on an empty WorkoutEntryBook.
+     */
+    public WorkoutEntryBatch() {
+        this(new WorkoutEntryBook());
+    }
+
+    /**
+     * Constructs a WorkoutEntryBatch working on the given WorkoutEntryBook.
+     *
+     * @param workoutEntryBook the book to run the commands against.
+     * @throws IllegalArgumentException if the book is null.
+     */
+    public WorkoutEntryBatch(WorkoutEntryBook workoutEntryBook) {
+        if (workoutEntryBook == null) {
+            throw new IllegalArgumentException("Workout entry book cannot be null");
+        }
+        this.workoutEntryBook = workoutEntryBook;
+    }
+
+    /**
+     * Runs every command from the input, then prints the timing report.
+     * The output is flushed when all commands have run, not after every line.
+     *
+     * @param in  the commands to run, one per line.
+     * @param out where to write the results and the timing report.
+     * @return the exit status: 0 if every command ran and all output was written, 1 otherwise.
+     * @throws IOException if the input cannot be read.
+     */
+    public int run(BufferedReader in, PrintWriter out) throws IOException {
+        long started = System.nanoTime();
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            int space = line.indexOf(' ');
+            String command = (space < 0 ? line : line.substring(0, space)).toLowerCase(Locale.ROOT);
+            String argument = space < 0 ? "" : line.substring(space + 1).strip();
+
+            if (!COMMANDS.contains(command)) {
+                failedCommands++;
+                out.println("Line " + lineNumber + ": Unknown command: " + command);
+                continue;
+            }
+
+            long t0 = System.nanoTime();
+            try {
+                execute(command, argument, out);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                failedCommands++;
+                out.println("Line " + lineNumber + ": " + e.getMessage());
+            }
+            record(command, System.nanoTime() - t0);
+        }
+        printTimings(out, System.nanoTime() - started);
+        out.flush();
+
+        // PrintWriter never throws, so a closed pipe only shows up here
+        return failedCommands > 0 || out.checkError() ? 1 : 0;
+    }
+
+    /**
+     * Runs a single command.
+     *
+     * @throws IllegalArgumentException if the command is unknown or its argument is invalid.
+     */
+    private void execute(String command, String argument, PrintWriter out) {
+        switch (command) {
+            case "add" -> add(argument, out);
+            case "list" -> printEntries(out);
+            case "trainer" -> printMatches(out, workoutEntryBook.findByTrainerName(argument));
+            case "workout" -> printMatches(out, workoutEntryBook.findByWorkout(argument));
+            case "date" -> printMatches(out, workoutEntryBook.findByDate(LocalDate.parse(argument)));
+            case "range" -> {
+                String[] dates = argument.split("\\s+");
+                if (dates.length != 2) {
+                    throw new IllegalArgumentException("range needs a start and an end date");
+                }
+                printMatches(out, workoutEntryBook.findByDateRange(LocalDate.parse(dates[0]),
+                        LocalDate.parse(dates[1])));
+            }
+            case "delete" -> {
+                int index;
+                try {
+                    index = Integer.parseInt(argument);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("delete needs a number, got: " + argument);
+                }
+                if (!workoutEntryBook.deleteByIndex(index)) {
+                    throw new IllegalArgumentException("Invalid index: " + index);
+                }
+            }
+            case "stats" -> workoutEntryBook.getTrainerStats()
+                    .forEach((trainer, count) -> out.println("- " + trainer + " (" + count + ")"));
+            case "count" -> out.println(workoutEntryBook.getNumberOfEntries());
+            case "duplicates" -> out.println(workoutEntryBook.getNumberOfDuplicates());
+            default -> throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    /**
+     * Adds an entry from an argument of the form {@code trainer | workout | text [| timestamp]}.
+     */
+    private void add(String argument, PrintWriter out) {
+        String[] fields = argument.split("\\|", -1);
+        if (fields.length < 3 || fields.length > 4) {
+            throw new IllegalArgumentException("add needs trainer | workout | text [| timestamp]");
+        }
+        LocalDateTime timestamp = fields.length == 4 ? LocalDateTime.parse(fields[3].strip()) : null;
+        if (!workoutEntryBook.addEntryIfNew(new WorkoutEntry(fields[0].strip(), fields[1].strip(),
+                fields[2].strip(), timestamp))) {
+            out.println("Duplicate entry, not added.");
+        }
+    }
+
+    /**
+     * Prints all entries with their 0-based index, so the index can be used with delete.
+     */
+    private void printEntries(PrintWriter out) {
+        Iterator<WorkoutEntry> it = workoutEntryBook.getIterator();
+        int i = 0;
+        while (it.hasNext()) {
+            out.println("[" + (i++) + "] " + it.next());
+        }
+    }
+
+    /**
+     * Prints the number of matches followed by the matching entries.
+     */
+    private void printMatches(PrintWriter out, List<WorkoutEntry> matches) {
+        out.println("Found " + matches.size() + " entries");
+        for (int i = 0; i < matches.size(); i++) {
+            out.println("[" + (i + 1) + "] " + matches.get(i));
+        }
+    }
+
+    /**
+     * Adds the time spent on one command to the totals for its kind.
+     */
+    private void record(String command, long nanos) {
+        CommandTiming timing = timings.computeIfAbsent(command, c -> new CommandTiming());
+        timing.count++;
+        timing.totalNanos += nanos;
+        timing.maxNanos = Math.max(timing.maxNanos, nanos);
+    }
+
+    /**
+     * Prints how many times each command ran, and its total, average and slowest time.
+     */
+    private void printTimings(PrintWriter out, long elapsedNanos) {
+        out.println("\nCommand timings:");
+        out.printf("%-10s %10s %12s %12s %12s%n", "command", "count", "total ms", "avg us", "max us");
+        timings.forEach((command, timing) -> out.printf("%-10s %10d %12.3f %12.3f %12.3f%n",
+                command, timing.count, timing.totalNanos / 1e6,
+                timing.totalNanos / 1e3 / timing.count, timing.maxNanos / 1e3));
+        out.printf("Failed commands: %d, entries: %d, elapsed: %.3f ms%n",
+                failedCommands, workoutEntryBook.getNumberOfEntries(), elapsedNanos / 1e6);
+    }
+
+    /**
+     * Returns the number of commands that could not be run.
+     *
+     * @return the number of commands that could not be run.
+     */
+    public int getFailedCommands() {
+        return failedCommands;
+    }
+}
@@ -2,6 +2,8 @@ package edu.ntnu.bidata.prog1.ui;
 
 import edu.ntnu.bidata.prog1.model.WorkoutEntry;
 import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryGenerator;
+import edu.ntnu.bidata.prog1.model.WorkoutProgression;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,6 +21,19 @@ import java.util.Scanner;
  */
 public class WorkoutEntryUi {
 
+    // How many trainers to offer at once, and how many typing mistakes to forgive when searching
+    private static final int MAX_TRAINER_CHOICES = 10;
+    private static final int MAX_TRAINER_EDITS = 2;
+
+    // How many trainers and workouts to show on the leaderboards
+    private static final int LEADERBOARD_SIZE = 5;
+
+    // Test data added at start-up
+    private static final long TEST_DATA_SEED = 2025;
+    private static final int TEST_DATA_TRAINERS = 8;
+    private static final int TEST_DATA_ENTRIES = 60;
+    private static final int TEST_DATA_DAYS = 28;
+
     private final WorkoutEntryBook workoutEntryBook;
     private final Scanner sc = new Scanner(System.in);
 
@@ -32,14 +47,14 @@ public class WorkoutEntryUi {
     /**
      * Prompts the user to select an existing trainer or create a new one.
      * If no trainers exist, prompts for a new trainer name.
+     * Otherwise the user types a trainer name or the start of one, and picks from the
+     * matching trainers. If nothing starts with the typed text, close spellings are suggested.
      * Returns the selected or newly created trainer name.
      *
      * @return the selected or newly created trainer name.
      */
     private String selectTrainer() {
-        List<String> trainers = workoutEntryBook.getTrainers();
-
-        if (trainers.isEmpty()) {
+        if (workoutEntryBook.getNumberOfTrainers() == 0) {
             System.out.print("No trainers yet. Enter new trainer name: ");
             String name = sc.nextLine().trim();
             if (name.isEmpty()) {
@@ -51,27 +66,60 @@ public class WorkoutEntryUi {
         }
 
         while (true) {
-            System.out.println("\nChoose a trainer:");
-            for (int i = 0; i < trainers.size(); i++) {
-                System.out.println((i + 1) + ". " + trainers.get(i));
+            System.out.print("\nTrainer name or start of name (blank to list, 0 to create new): ");
+            String line = sc.nextLine().trim();
+
+            if (line.equals("0")) {
+                System.out.print("Enter new trainer name: ");
+                String name = sc.nextLine().trim();
+                if (name.isEmpty()) {
+                    System.out.println("Trainer name cannot be blank.");
+                    continue;
+                }
+                workoutEntryBook.registerTrainer(name);
+                return name;
+            }
+
+            List<String> candidates = workoutEntryBook.completeTrainerName(line, MAX_TRAINER_CHOICES);
+            if (candidates.isEmpty()) {
+                candidates = workoutEntryBook.suggestTrainerNames(line, MAX_TRAINER_EDITS, MAX_TRAINER_CHOICES);
+                if (candidates.isEmpty()) {
+                    System.out.println("No trainers match \"" + line + "\".");
+                    continue;
+                }
+                System.out.println("No trainer starts with \"" + line + "\". Did you mean:");
+            } else if (candidates.size() == 1 && candidates.get(0).equalsIgnoreCase(line)) {
+                return candidates.get(0);
+            }
+
+            String choice = chooseTrainer(candidates);
+            if (choice != null) {
+                return choice;
+            }
+        }
+    }
+
+    /**
+     * Lets the user pick one trainer from a numbered list.
+     *
+     * @param candidates the trainers to choose from.
+     * @return the chosen trainer, or null if the user wants to search again.
+     */
+    private String chooseTrainer(List<String> candidates) {
+        while (true) {
+            for (int i = 0; i < candidates.size(); i++) {
+                System.out.println((i + 1) + ". " + candidates.get(i));
             }
-            System.out.println("0. Create new trainer");
-            System.out.print("Select (0-" + trainers.size() + "): ");
+            System.out.println("0. Search again");
+            System.out.print("Select (0-" + candidates.size() + "): ");
             String line = sc.nextLine().trim();
 
             try {
                 int choice = Integer.parseInt(line);
                 if (choice == 0) {
-                    System.out.print("Enter new trainer name: ");
-                    String name = sc.nextLine().trim();
-                    if (name.isEmpty()) {
-                        System.out.println("Trainer name cannot be blank.");
-                        continue;
-                    }
-                    workoutEntryBook.registerTrainer(name);
-                    return name;
-                } else if (choice >= 1 && choice <= trainers.size()) {
-                    return trainers.get(choice - 1);
+                    return null;
+                } else if (choice >= 1 && choice <= candidates.size()) {
+                    return candidates.get(choice - 1);
                 } else {
                     System.out.println("Invalid choice.");
                 }
@@ -82,32 +130,14 @@ public class WorkoutEntryUi {
     }
 
     /**
-     * Fills the workout entry book with predefined test data.
-     * Adds several workout entries with sample trainer names, workout titles, and details.
+     * Fills the workout entry book with test data.
+     * The entries are generated from a fixed seed, so the same entries are added each time,
+     * spread over the last few weeks up to yesterday.
      */
     private void fillWithTestData() {
-        this.workoutEntryBook.addEntry(new WorkoutEntry("Binit", "Squat",
-                "Started with a warm-up of 12 reps without any weights. " +
-                        "Then performed 4 working sets, beginning at 20 kg and increasing the weight by 15 kg each set, " +
-                        "finishing with 60 kg in the final set.", null));
-
-        this.workoutEntryBook.addEntry(new WorkoutEntry("Anish", "Bench Press",
-                "Completed 3 sets of 10 reps at 450 kg with 90 seconds of rest between sets. " +
-                        "For the final heavy set, increased the load to 1000 kg and managed 6 solid reps.", null));
-
-        this.workoutEntryBook.addEntry(new WorkoutEntry("Omkar", "Dead-lift",
-                "Started with leg and back stretches to prevent soreness during the workout. " +
-                        "Warmed up with 60 kg, then performed 4 working sets of 12 reps, " +
-                        "starting at 120 kg and adding 20 kg with each set.", null));
-
-        this.workoutEntryBook.addEntry(new WorkoutEntry("Shraddha", "Biceps",
-                "Began with 2 warm-up sets of 8 reps at 10 kg to warm up the muscles. " +
-                        "Then performed 3 main sets of 12 reps at 10 kg, focusing on form and control.", null));
-
-        this.workoutEntryBook.addEntry(new WorkoutEntry("Sabin", "Triceps",
-                "Started with 2 warm-up sets of 8 reps at 20 kg. " +
-                        "Followed by 4 working sets of 12 reps at 30 kg, " +
-                        "increasing the weight by 10 kg each set while maintaining good form.", null));
+        LocalDate today = LocalDate.now();
+        new WorkoutEntryGenerator(TEST_DATA_SEED, TEST_DATA_TRAINERS, today.minusDays(TEST_DATA_DAYS), today.minusDays(1))
+                .fill(workoutEntryBook, TEST_DATA_ENTRIES);
     }
 
     /**
@@ -125,8 +155,9 @@ public class WorkoutEntryUi {
         System.out.println("6. Search by date range (from - to)");
         System.out.println("7. Delete by index");
         System.out.println("8. Show trainers & stats");
-        System.out.println("9. Quit");
-        System.out.print("Choose (1-9): ");
+        System.out.println("9. Show progression");
+        System.out.println("10. Quit");
+        System.out.print("Choose (1-10): ");
         String line = sc.nextLine();
         try {
             return Integer.parseInt(line.trim());
@@ -157,7 +188,8 @@ public class WorkoutEntryUi {
 
     /**
      * Displays a list of all registered trainers along with the number of
-     * workout entries associated with each trainer.
+     * workout entries associated with each trainer, followed by the most active
+     * trainers and most popular workouts of the last week.
      * If no trainers are registered, informs the user accordingly.
      */
     private void showTrainersAndStats() {
@@ -168,6 +200,29 @@ public class WorkoutEntryUi {
         }
         System.out.println("\nTrainers (entries):");
         stats.forEach((trainer, count) -> System.out.println("- " + trainer + " (" + count + ")"));
+
+        System.out.println("\nMost active trainers last 7 days:");
+        workoutEntryBook.getTopTrainersLastWeek(LEADERBOARD_SIZE)
+                .forEach((trainer, count) -> System.out.println("- " + trainer + " (" + count + ")"));
+        System.out.println("\nMost popular workouts last 7 days:");
+        workoutEntryBook.getTopWorkoutsLastWeek(LEADERBOARD_SIZE)
+                .forEach((workout, count) -> System.out.println("- " + workout + " (" + count + ")"));
+    }
+
+    /**
+     * Shows a trainer's personal record, recent average and trend in each workout.
+     * Prompts the user for the trainer name.
+     */
+    private void showProgression() {
+        System.out.print("Trainer name: ");
+        String name = sc.nextLine().trim();
+        List<WorkoutProgression> progressions = workoutEntryBook.getProgressions(name);
+        if (progressions.isEmpty()) {
+            System.out.println("No entries for " + name + ".");
+            return;
+        }
+        System.out.println("\nProgression for " + progressions.get(0).getTrainerName() + ":");
+        progressions.forEach(p -> System.out.println("- " + p));
     }
 
     /**
@@ -218,6 +273,10 @@ public class WorkoutEntryUi {
 
         if (matches.isEmpty()) {
             System.out.println("No entries found for trainer: " + name);
+            var suggestions = workoutEntryBook.suggestTrainerNames(name, MAX_TRAINER_EDITS, MAX_TRAINER_CHOICES);
+            if (!suggestions.isEmpty()) {
+                System.out.println("Did you mean: " + String.join(", ", suggestions) + "?");
+            }
         } else {
             System.out.println("Entries for trainer: " + name);
             for (int i = 0; i < matches.size(); i++) {
@@ -313,12 +372,13 @@ public class WorkoutEntryUi {
                 case 6 -> searchByDateRange();
                 case 7 -> deleteByIndex();
                 case 8 -> showTrainersAndStats();
-                case 9 -> {
+                case 9 -> showProgression();
+                case 10 -> {
                     System.out.println("Thank you!");
                     sc.close();
                     finished = true;
                 }
-                default -> System.out.println("Please choose a number 1–9.");
+                default -> System.out.println("Please choose a number 1–10.");
             }
         }
     }
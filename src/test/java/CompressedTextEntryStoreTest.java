@@ -0,0 +1,104 @@
+import edu.ntnu.bidata.prog1.model.CompressedTextEntryStore;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Perform unit tests on the CompressedTextEntryStore class.
+ *
+ * The following positive tests are executed:
+ *
+ * Add many entries with repetitive texts and read them back.
+ * Expect every text to be unchanged and the texts to take up much less space than uncompressed.
+ *
+ * Search without reading the texts.
+ * Expect no text to be decompressed.
+ *
+ * Delete most entries so the texts are moved to a new column.
+ * Expect the remaining entries, entries read before the move and deleted entries found in an earlier version,
+ * to keep their text.
+ *
+ * The following negative tests are executed:
+ *
+ * Read an entry at an invalid index.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class CompressedTextEntryStoreTest {
+
+    private static String text(int i) {
+        return "Warm-up of 12 reps without weights, then " + (3 + i % 3) + " working sets of "
+                + (8 + i % 5) + " reps at " + (20 + i % 40) + " kg. Felt " + (i % 2 == 0 ? "strong" : "tired") + ".";
+    }
+
+    /**
+     * Returns a book that keeps its entries in the given store, with the given number of entries.
+     */
+    private static WorkoutEntryBook fill(CompressedTextEntryStore store, int count) {
+        WorkoutEntryBook book = new WorkoutEntryBook(store);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 6, 0);
+        for (int i = 0; i < count; i++) {
+            book.addEntry(new WorkoutEntry(i % 3 == 0 ? "Binit" : "Arne", "Squat", text(i), start.plusMinutes(i)));
+        }
+        return book;
+    }
+
+    @Test
+    public void readBackCompressedTexts() {
+        CompressedTextEntryStore store = new CompressedTextEntryStore();
+        WorkoutEntryBook book = fill(store, 5000);
+
+        List<WorkoutEntry> entries = book.findByWorkout("Squat");
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(text(i), entries.get(i).getText());
+        }
+        assertTrue(store.getCompressionRatio() > 4, "ratio was " + store.getCompressionRatio());
+        assertTrue(entries.get(42).toString().contains(text(42)));
+    }
+
+    @Test
+    public void searchWithoutDecompressing() {
+        CompressedTextEntryStore store = new CompressedTextEntryStore();
+        WorkoutEntryBook book = fill(store, 5000);
+        double readMicros = store.getAverageTextReadMicros();
+
+        assertEquals(1667, book.findByTrainerName("Binit").size());
+        assertEquals(readMicros, store.getAverageTextReadMicros(), 0.0);
+    }
+
+    @Test
+    public void keepTextsWhenMovedToNewColumn() {
+        WorkoutEntryBook book = fill(new CompressedTextEntryStore(), 3000);
+        WorkoutEntry early = book.findByWorkout("Squat").get(0);
+
+        for (int i = 0; i < 2500; i++) {
+            book.deleteByIndex(0);
+        }
+
+        assertEquals(text(0), early.getText());
+        assertEquals(text(1), book.findByWorkout("Squat", 3000).get(1).getText());
+        List<WorkoutEntry> entries = book.findByWorkout("Squat");
+        assertEquals(500, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(text(2500 + i), entries.get(i).getText());
+        }
+    }
+
+    @Test
+    public void readInvalidIndex() {
+        CompressedTextEntryStore store = new CompressedTextEntryStore();
+        try {
+            store.get(0);
+        } catch (IndexOutOfBoundsException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
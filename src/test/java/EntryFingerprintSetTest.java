@@ -0,0 +1,147 @@
+import edu.ntnu.bidata.prog1.model.EntryFingerprintSet;
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.service.WorkoutEntryBookStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Perform unit tests on the EntryFingerprintSet class and duplicate detection in WorkoutEntryBook.
+ *
+ * The following positive tests are executed:
+ *
+ * Fingerprint entries that differ in one field, or only in surrounding spaces.
+ * Expect different fingerprints, or the same one.
+ *
+ * Add and remove many fingerprints, some of them twice.
+ * Expect the set to contain exactly those added more often than removed.
+ *
+ * Add the same entries twice with addEntryIfNew.
+ * Expect the second time to be turned away and counted, until the entry is deleted.
+ *
+ * Drop the text of an entry, then save and load the book.
+ * Expect the original entry to still be turned away, the count and loads to be kept,
+ * and deleting the entry without its text to let the original be added again.
+ *
+ * The following negative tests are executed:
+ *
+ * Add the fingerprint 0, and a null entry.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class EntryFingerprintSetTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 9, 29, 8, 30);
+
+    @Test
+    public void fingerprintAllFields() {
+        long fingerprint = EntryFingerprintSet.fingerprint(new WorkoutEntry("Binit", "Squat", "4 sets", TIME));
+
+        assertEquals(fingerprint, EntryFingerprintSet.fingerprint(new WorkoutEntry(" Binit ", "Squat ", "4 sets", TIME)));
+        assertNotEquals(fingerprint, EntryFingerprintSet.fingerprint(new WorkoutEntry("Arne", "Squat", "4 sets", TIME)));
+        assertNotEquals(fingerprint, EntryFingerprintSet.fingerprint(new WorkoutEntry("Binit", "Biceps", "4 sets", TIME)));
+        assertNotEquals(fingerprint, EntryFingerprintSet.fingerprint(new WorkoutEntry("Binit", "Squat", "5 sets", TIME)));
+        assertNotEquals(fingerprint,
+                EntryFingerprintSet.fingerprint(new WorkoutEntry("Binit", "Squat", "4 sets", TIME.plusNanos(1))));
+        assertNotEquals(EntryFingerprintSet.fingerprint(new WorkoutEntry("ab", "c", "x", TIME)),
+                EntryFingerprintSet.fingerprint(new WorkoutEntry("a", "bc", "x", TIME)));
+    }
+
+    @Test
+    public void addAndRemoveManyFingerprints() {
+        EntryFingerprintSet set = new EntryFingerprintSet();
+        for (long i = 1; i <= 20_000; i++) {
+            assertTrue(set.add(i * 0x9E3779B97F4A7C15L));
+        }
+        assertFalse(set.add(7 * 0x9E3779B97F4A7C15L));
+        for (long i = 1; i <= 20_000; i += 2) {
+            assertTrue(set.remove(i * 0x9E3779B97F4A7C15L));
+        }
+
+        assertEquals(10_001, set.size());
+        assertTrue(set.contains(7 * 0x9E3779B97F4A7C15L));
+        assertFalse(set.contains(9 * 0x9E3779B97F4A7C15L));
+        for (long i = 2; i <= 20_000; i += 2) {
+            assertTrue(set.contains(i * 0x9E3779B97F4A7C15L));
+        }
+        for (long i = 20_001; i <= 30_000; i++) {
+            assertFalse(set.contains(i * 0x9E3779B97F4A7C15L));
+        }
+        assertTrue(set.getBloomRejectionRate() > 0.3);
+        assertFalse(set.remove(12_345));
+    }
+
+    @Test
+    public void turnAwayDuplicateEntries() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        assertTrue(book.addEntryIfNew(new WorkoutEntry("Binit", "Squat", "4 sets", TIME)));
+        assertTrue(book.addEntryIfNew(new WorkoutEntry("Binit", "Squat", "4 sets", TIME.plusMinutes(1))));
+        assertFalse(book.addEntryIfNew(new WorkoutEntry("Binit", "Squat", "4 sets", TIME)));
+        assertEquals(2, book.getNumberOfEntries());
+        assertEquals(1, book.getNumberOfDuplicates());
+
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "4 sets", TIME));
+        book.deleteByIndex(0);
+        assertFalse(book.addEntryIfNew(new WorkoutEntry("Binit", "Squat", "4 sets", TIME)));
+        book.deleteByIndex(1);
+        assertTrue(book.addEntryIfNew(new WorkoutEntry("Binit", "Squat", "4 sets", TIME)));
+        assertEquals(2, book.getNumberOfDuplicates());
+    }
+
+    @Test
+    public void keepFingerprintsAfterDropTextAndReload() throws IOException {
+        LocalDateTime now = TIME.plusYears(1);
+        WorkoutEntry original = new WorkoutEntry("Binit", "Squat", "4 sets of 100 kg", TIME);
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(original);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "60 kg", now));
+        assertFalse(book.addEntryIfNew(original));
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofDays(90), RetentionPolicy.Action.DROP_TEXT));
+        assertEquals(1, book.applyRetention(now));
+
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            WorkoutEntryBookStorage.save(book, file);
+            WorkoutEntryBook loaded = WorkoutEntryBookStorage.load(file);
+
+            assertFalse(loaded.addEntryIfNew(original));
+            assertEquals(2, loaded.getNumberOfDuplicates());
+            assertEquals(100.0, loaded.getProgression("Binit", "Squat").getPersonalRecord());
+
+            assertTrue(loaded.deleteByIndex(0));
+            assertTrue(loaded.addEntryIfNew(original));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void rejectInvalidInput() {
+        try {
+            new EntryFingerprintSet().add(0);
+            fail("Expected an exception for the fingerprint 0");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new WorkoutEntryBook().addEntryIfNew(null);
+            fail("Expected an exception for a null entry");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
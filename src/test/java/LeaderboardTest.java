@@ -0,0 +1,155 @@
+import edu.ntnu.bidata.prog1.model.Leaderboard;
+import edu.ntnu.bidata.prog1.model.ArrayListEntryStore;
+import edu.ntnu.bidata.prog1.model.WindowedLeaderboard;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Perform unit tests on the Leaderboard and WindowedLeaderboard classes.
+ *
+ * The following positive tests are executed:
+ *
+ * Add to and subtract from the counts of several names.
+ * Expect the top names in order of their counts, and names at zero to be removed.
+ *
+ * Count names on days inside and outside a window, and move the clock forward.
+ * Expect only the days inside the window to be counted.
+ *
+ * Add and delete entries in a WorkoutEntryBook.
+ * Expect the top trainers and workouts to follow.
+ *
+ * Read the top many times, then count a name on the clock's current day.
+ * Expect the reads to leave the window where it was, and the name to be counted.
+ *
+ * The following negative tests are executed:
+ *
+ * Subtract from the count of a name that is not counted.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class LeaderboardTest {
+
+    @Test
+    public void topNamesInOrderOfCount() {
+        Leaderboard board = new Leaderboard();
+        board.add("Binit", 1);
+        board.add("Arne", 1);
+        board.add("Arne", 1);
+        board.add("Omkar", 5);
+        board.add("Binit", 2);
+        board.add("Omkar", -4);
+
+        assertEquals(List.of("Binit", "Arne", "Omkar"), List.copyOf(board.top(10).keySet()));
+        assertEquals(Map.of("Binit", 3), board.top(1));
+        assertEquals(1, board.getCount("Omkar"));
+
+        board.add("Omkar", -1);
+        assertEquals(0, board.getCount("Omkar"));
+        assertEquals(2, board.size());
+    }
+
+    /**
+     * A clock that stays at the start of a day until it is moved to another day.
+     */
+    private static class DayClock extends Clock {
+        private LocalDate day;
+
+        private DayClock(LocalDate day) {
+            this.day = day;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return day.atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+    }
+
+    @Test
+    public void countOnlyDaysInWindow() {
+        LocalDate today = LocalDate.of(2025, 9, 29);
+        DayClock clock = new DayClock(today);
+        WindowedLeaderboard board = new WindowedLeaderboard(7, clock);
+        board.add(today.minusDays(10), "Arne", 5);
+        board.add(today.minusDays(6), "Binit", 2);
+        board.add(today, "Omkar", 1);
+        board.add(today.plusDays(3), "Omkar", 3);
+
+        assertEquals(Map.of("Binit", 2, "Omkar", 1), board.top(10));
+
+        board.add(today.minusDays(6), "Binit", -1);
+        assertEquals(List.of("Omkar", "Binit"), List.copyOf(board.top(10).keySet()));
+
+        clock.day = today.plusDays(3);
+        assertEquals(Map.of("Omkar", 4), board.top(10));
+        clock.day = today.plusDays(20);
+        assertTrue(board.top(10).isEmpty());
+    }
+
+    @Test
+    public void bookLeaderboardsFollowEntries() {
+        LocalDate today = LocalDate.of(2025, 9, 29);
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), new DayClock(today));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Warmup", today.atTime(8, 0)));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "Warmup", today.atTime(9, 0)));
+        book.addEntry(new WorkoutEntry("Arne", "Cycling", "Cardio", today.minusDays(30).atTime(9, 0)));
+
+        assertEquals(Map.of("Arne", 2), book.getTopTrainers(1));
+        assertEquals(Map.of("Squat", 2), book.getTopWorkouts(1));
+        assertEquals(Map.of("Binit", 1, "Arne", 1), book.getTopTrainersLastWeek(5));
+
+        book.deleteByIndex(0);
+        assertEquals(Map.of("Arne", 1), book.getTopTrainersLastWeek(5));
+        assertEquals(Map.of("Squat", 1, "Cycling", 1), book.getTopWorkouts(5));
+    }
+
+    @Test
+    public void readingLeavesWindowUnchanged() {
+        LocalDate today = LocalDate.of(2025, 3, 1);
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), new DayClock(today));
+        book.addEntry(new WorkoutEntry("B", "Squat", "Warmup", today.atTime(8, 0)));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Map.of("B", 1), book.getTopTrainersLastWeek(5));
+        }
+
+        book.addEntry(new WorkoutEntry("A", "Squat", "Warmup", today.atTime(9, 0)));
+        book.addEntry(new WorkoutEntry("A", "Squat", "Warmup", today.atTime(10, 0)));
+        assertEquals(Map.of("A", 2, "B", 1), book.getTopTrainersLastWeek(5));
+        assertEquals(Map.of("Squat", 3), book.getTopWorkoutsLastWeek(5));
+    }
+
+    @Test
+    public void subtractFromUncountedName() {
+        Leaderboard board = new Leaderboard();
+        try {
+            board.add("Binit", -1);
+            fail("Expected an exception for a count below zero");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import edu.ntnu.bidata.prog1.model.OffHeapEntryStore;
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Perform unit tests on the OffHeapEntryStore class.
+ *
+ * The following positive tests are executed:
+ *
+ * Add an entry with non-ASCII text and read it back.
+ * Expect every field to be unchanged.
+ *
+ * Add more entries than fit in the first memory segment, then delete and search them through a WorkoutEntryBook.
+ * Expect the same results as with the default store.
+ *
+ * Roll up and drop the text of old entries through a WorkoutEntryBook.
+ * Expect the remaining entries to keep their text, and the memory of the dropped texts to be freed.
+ *
+ * Replace every text many times, last entry first.
+ * Expect every entry to keep its newest text, and the unused space to be reused instead of allocating more memory.
+ *
+ * The following negative tests are executed:
+ *
+ * Read an entry at an invalid index.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class OffHeapEntryStoreTest {
+
+    @Test
+    public void readBackEntry() {
+        try (OffHeapEntryStore store = new OffHeapEntryStore()) {
+            LocalDateTime when = LocalDateTime.of(2025, 9, 29, 8, 30, 15, 123_456_789);
+            store.add(new WorkoutEntry("Bjørn", "Knebøy", "Tre sett på 80 kg, så 5 × 5", when));
+
+            WorkoutEntry entry = store.get(0);
+            assertEquals("Bjørn", entry.getTrainerName());
+            assertEquals("Knebøy", entry.getWorkout());
+            assertEquals("Tre sett på 80 kg, så 5 × 5", entry.getText());
+            assertEquals(when, entry.getTimestamp());
+            assertEquals(27, store.getTextLength(0));
+            assertEquals(when.toLocalDate().toEpochDay(), store.getEpochDay(0));
+        }
+    }
+
+    @Test
+    public void growDeleteAndSearch() {
+        try (OffHeapEntryStore store = new OffHeapEntryStore()) {
+            WorkoutEntryBook book = new WorkoutEntryBook(store);
+            LocalDateTime start = LocalDateTime.of(2025, 1, 1, 6, 0);
+            for (int i = 0; i < 5000; i++) {
+                book.addEntry(new WorkoutEntry(i % 2 == 0 ? "Binit" : "Arne", "Squat", "Set " + i, start.plusHours(i)));
+            }
+
+            assertEquals(5000, book.getNumberOfEntries());
+            assertEquals(2500, book.findByTrainerName("binit").size());
+            book.deleteByIndex(0);
+            assertEquals("Set 1", book.findByWorkout("Squat").get(0).getText());
+            assertEquals(24, book.findByDate(LocalDate.of(2025, 1, 2)).size());
+            assertEquals(48, book.findByDateRange(LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 3)).size());
+        }
+    }
+
+    @Test
+    public void applyRetention() {
+        try (OffHeapEntryStore store = new OffHeapEntryStore()) {
+            WorkoutEntryBook book = new WorkoutEntryBook(store);
+            LocalDateTime now = LocalDateTime.of(2025, 9, 29, 12, 0);
+            for (int i = 0; i < 300; i++) {
+                book.addEntry(new WorkoutEntry("Binit", "Squat", "Entry " + i + " " + "x".repeat(500), now.minusDays(300 - i)));
+            }
+            book.addRetentionPolicy(new RetentionPolicy(Period.ofDays(200), RetentionPolicy.Action.ROLL_UP));
+            book.addRetentionPolicy(new RetentionPolicy(Period.ofDays(10), RetentionPolicy.Action.DROP_TEXT));
+            long before = store.getOffHeapSize();
+
+            assertEquals(100 + 190, book.applyRetention(now));
+            assertTrue(store.getOffHeapSize() < before / 2);
+            assertEquals(200, book.getNumberOfEntries());
+            assertEquals(300, book.getTrainerStats().get("Binit"));
+            assertEquals("", book.findByTrainerName("Binit").get(0).getText());
+            assertEquals("Entry 299 " + "x".repeat(500), book.findByTrainerName("Binit").get(199).getText());
+        }
+    }
+
+    @Test
+    public void replaceTextsOutOfOrder() {
+        try (OffHeapEntryStore store = new OffHeapEntryStore()) {
+            LocalDateTime when = LocalDateTime.of(2025, 9, 29, 8, 30);
+            for (int i = 0; i < 1000; i++) {
+                store.add(new WorkoutEntry("Binit", "Squat", "Entry " + i + " " + "x".repeat(200), when));
+            }
+            long size = 0;
+            for (int round = 0; round < 20; round++) {
+                for (int i = 999; i >= 0; i--) {
+                    store.set(i, new WorkoutEntry("Binit", "Squat", "Round " + round + " " + i + " " + "y".repeat(200), when));
+                }
+                if (round == 2) {
+                    size = store.getOffHeapSize();
+                }
+            }
+
+            assertEquals("Round 19 0 " + "y".repeat(200), store.get(0).getText());
+            assertEquals("Round 19 999 " + "y".repeat(200), store.get(999).getText());
+            assertEquals(size, store.getOffHeapSize());
+        }
+    }
+
+    @Test
+    public void readInvalidIndex() {
+        try (OffHeapEntryStore store = new OffHeapEntryStore()) {
+            store.get(0);
+        } catch (IndexOutOfBoundsException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import edu.ntnu.bidata.prog1.model.CountMinSketch;
+import edu.ntnu.bidata.prog1.model.HyperLogLog;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutEntrySketches;
+import edu.ntnu.bidata.prog1.service.WorkoutEntryBookStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Perform unit tests on the HyperLogLog, CountMinSketch and WorkoutEntrySketches classes.
+ *
+ * The following positive tests are executed:
+ *
+ * Add many distinct strings, some of them more than once, to a HyperLogLog.
+ * Expect the estimate to be within three standard errors, and exact for few strings.
+ *
+ * Count strings with different frequencies in a CountMinSketch.
+ * Expect no estimate below the true count, and none too far above it.
+ *
+ * Merge sketches filled with different strings.
+ * Expect the same estimates as one sketch filled with all the strings.
+ *
+ * Add entries to two WorkoutEntryBooks and merge their sketches.
+ * Expect the distinct counts, pair counts and most frequent pairs of both books together.
+ *
+ * Delete an entry, then save and load the book.
+ * Expect the distinct counts to still count the deleted entry, and an empty book to hold no sketches.
+ *
+ * The following negative tests are executed:
+ *
+ * Create sketches with invalid sizes, and merge sketches of different sizes.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class SketchesTest {
+
+    @Test
+    public void estimateDistinctStrings() {
+        HyperLogLog small = new HyperLogLog(10);
+        for (int i = 0; i < 100; i++) {
+            small.add("workout " + (i % 20));
+        }
+        assertEquals(20, small.estimate());
+
+        HyperLogLog large = new HyperLogLog(12);
+        for (int i = 0; i < 200_000; i++) {
+            large.add("trainer " + (i % 50_000));
+        }
+        double error = Math.abs(large.estimate() - 50_000) / 50_000.0;
+        assertTrue(error < 3 * large.getStandardError(), "error " + error);
+        assertEquals(4096, large.getSize());
+    }
+
+    @Test
+    public void neverUnderestimateCounts() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 5000; i++) {
+            sketch.add("pair " + i, 1 + i % 7);
+        }
+        long allowed = (long) Math.ceil(sketch.getRelativeError() * sketch.getTotal());
+        int tooHigh = 0;
+        for (int i = 0; i < 5000; i++) {
+            long estimate = sketch.estimate("pair " + i);
+            assertTrue(estimate >= 1 + i % 7);
+            if (estimate > 1 + i % 7 + allowed) {
+                tooHigh++;
+            }
+        }
+        assertTrue(tooHigh < 5000 * (1 - sketch.getConfidence()) * 3, "too high " + tooHigh);
+
+        sketch.add("pair 3", -4);
+        assertTrue(sketch.estimate("pair 3") >= 0);
+        assertEquals(0, sketch.estimate(null));
+    }
+
+    @Test
+    public void mergeAsIfFilledTogether() {
+        HyperLogLog a = new HyperLogLog(10);
+        HyperLogLog b = new HyperLogLog(10);
+        HyperLogLog all = new HyperLogLog(10);
+        CountMinSketch ca = new CountMinSketch(256, 3);
+        CountMinSketch cb = new CountMinSketch(256, 3);
+        for (int i = 0; i < 3000; i++) {
+            (i % 2 == 0 ? a : b).add("s" + i);
+            all.add("s" + i);
+            (i % 3 == 0 ? ca : cb).add("s" + i % 100, 1);
+        }
+        a.merge(b);
+        ca.merge(cb);
+        assertEquals(all.estimate(), a.estimate());
+        assertEquals(3000, ca.getTotal());
+        assertTrue(ca.estimate("s42") >= 30);
+    }
+
+    @Test
+    public void mergeSketchesOfTwoBooks() {
+        LocalDateTime monday = LocalDateTime.of(2025, 9, 29, 8, 0);
+        WorkoutEntryBook first = new WorkoutEntryBook();
+        WorkoutEntryBook second = new WorkoutEntryBook();
+        for (int i = 0; i < 30; i++) {
+            first.addEntry(new WorkoutEntry("Binit", "Squat", "5 reps", monday.plusMinutes(i)));
+        }
+        first.addEntry(new WorkoutEntry("Binit", "Biceps", "3 sets", monday));
+        first.addEntry(new WorkoutEntry("Arne", "Squat", "4 sets", monday.plusDays(1)));
+        for (int i = 0; i < 10; i++) {
+            second.addEntry(new WorkoutEntry("binit", "Dead-lift", "3 reps", monday.plusMinutes(i)));
+            second.addEntry(new WorkoutEntry("Omkar", "Squat", "8 reps", monday.plusMinutes(i)));
+        }
+        second.deleteByIndex(0);
+
+        assertEquals(2, first.estimateDistinctWorkouts("BINIT"));
+        assertEquals(30, first.estimatePairCount("binit", "squat"));
+        assertEquals(9, second.estimatePairCount("Binit", "Dead-lift"));
+
+        WorkoutEntrySketches merged = first.getSketches();
+        merged.merge(second.getSketches());
+        assertEquals(3, merged.estimateDistinctWorkouts("Binit"));
+        assertEquals(2, merged.estimateDistinctTrainers(LocalDate.of(2025, 9, 29)));
+        assertEquals(1, merged.estimateDistinctTrainers(LocalDate.of(2025, 9, 30)));
+        assertEquals(0, merged.estimateDistinctTrainers(LocalDate.of(2025, 10, 1)));
+        assertEquals(List.of("Binit - Squat", "Omkar - Squat", "binit - Dead-lift"),
+                List.copyOf(merged.getFrequentPairs(3).keySet()));
+        assertEquals(Map.of("Binit - Squat", 30L), merged.getFrequentPairs(1));
+
+        assertEquals(2, first.estimateDistinctWorkouts("Binit"));
+    }
+
+    @Test
+    public void keepSketchesAfterSaveAndLoad() throws IOException {
+        LocalDateTime monday = LocalDateTime.of(2025, 9, 29, 8, 0);
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        assertEquals(0, book.getSketches().getSize());
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "5 reps", monday));
+        book.addEntry(new WorkoutEntry("Binit", "Biceps", "3 sets", monday));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "4 sets", monday));
+        book.deleteByIndex(2);
+
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            WorkoutEntryBookStorage.save(book, file);
+            WorkoutEntryBook loaded = WorkoutEntryBookStorage.load(file);
+
+            assertEquals(2, loaded.estimateDistinctTrainers(LocalDate.of(2025, 9, 29)));
+            assertEquals(2, loaded.estimateDistinctWorkouts("Binit"));
+            assertEquals(0, loaded.estimatePairCount("Arne", "Squat"));
+            assertEquals(book.getFrequentPairs(5), loaded.getFrequentPairs(5));
+            assertEquals(book.getEstimatedSize(), loaded.getEstimatedSize());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void rejectInvalidSizes() {
+        try {
+            new HyperLogLog(3);
+            fail("Expected an exception for too low precision");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new CountMinSketch(1000, 4);
+            fail("Expected an exception for a width that is not a power of two");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new HyperLogLog(10).merge(new HyperLogLog(11));
+            fail("Expected an exception for merging different precisions");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new CountMinSketch(256, 3).merge(new CountMinSketch(256, 4));
+            fail("Expected an exception for merging different depths");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
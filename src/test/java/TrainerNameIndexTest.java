@@ -0,0 +1,201 @@
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
+import edu.ntnu.bidata.prog1.model.TrainerNameIndex;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.service.WorkoutEntryBookStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Perform unit tests on the TrainerNameIndex class.
+ *
+ * The following positive tests are executed:
+ *
+ * Complete a prefix regardless of case.
+ * Expect the matching names in alphabetical order, limited to the given number.
+ *
+ * Suggest names for a misspelled name.
+ * Expect the closest names first.
+ *
+ * Remove a name from the index.
+ * Expect the name to no longer be found.
+ *
+ * Search a WorkoutEntryBook by trainer name after the trainer's last entry is deleted.
+ * Expect no entries and no completion for the trainer.
+ *
+ * Add and remove entry ids of names that differ only in case.
+ * Expect the ids of both names, in increasing order, without the removed one.
+ *
+ * Search a WorkoutEntryBook by trainer name after deleting, rolling up and reloading entries.
+ * Expect exactly the trainer's remaining entries, in the order they were added.
+ *
+ * The following negative tests are executed:
+ *
+ * Look up a null or blank name.
+ * Expect an empty list.
+ *
+ * Add a null name to the index.
+ * Expect an exception to be thrown.
+ *
+ * Add an entry id that is not larger than the last one, or for a name not in the index.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class TrainerNameIndexTest {
+
+    @Test
+    public void completePrefixIgnoringCase() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        index.add("Binit");
+        index.add("Bjorn");
+        index.add("bianca");
+        index.add("Arne");
+
+        assertEquals(List.of("bianca", "Binit"), index.complete("BI", 10));
+        assertEquals(List.of("bianca"), index.complete("bi", 1));
+        assertEquals(4, index.complete("", 10).size());
+    }
+
+    @Test
+    public void suggestClosestNamesFirst() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        index.add("Binit");
+        index.add("Bint");
+        index.add("Omkar");
+
+        assertEquals(List.of("Binit", "Bint"), index.suggest("binit", 2, 10));
+        assertEquals(List.of("Omkar"), index.suggest("Onkar", 1, 10));
+        assertTrue(index.suggest("Shraddha", 2, 10).isEmpty());
+    }
+
+    @Test
+    public void removeName() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        index.add("Binit");
+        index.add("Binita");
+
+        assertTrue(index.remove("Binit"));
+        assertTrue(index.find("binit").isEmpty());
+        assertEquals(List.of("Binita"), index.complete("bin", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void bookForgetsTrainerAfterLastEntryDeleted() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(new WorkoutEntry("Binit", "Treadmill", "Warmup", null));
+        assertEquals(1, book.findByTrainerName("binit").size());
+
+        book.deleteByIndex(0);
+        assertTrue(book.findByTrainerName("Binit").isEmpty());
+        assertTrue(book.completeTrainerName("Bi", 10).isEmpty());
+    }
+
+    @Test
+    public void addAndRemoveEntries() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        index.add("Binit");
+        index.add("binit");
+        index.add("Bint");
+        index.addEntry("Binit", 1);
+        index.addEntry("Bint", 2);
+        index.addEntry("binit", 3);
+        index.addEntry(" BINIT ", 4);
+
+        assertTrue(index.removeEntry("Binit", 3));
+        assertFalse(index.removeEntry("Binit", 2));
+        assertArrayEquals(new long[] {1, 4}, index.findEntries("binit"));
+        assertArrayEquals(new long[] {2}, index.findEntries("Bint"));
+        assertEquals(0, index.findEntries("Bin").length);
+
+        index.clearEntries();
+        assertEquals(0, index.findEntries("Binit").length);
+        assertEquals(List.of("Binit", "binit"), index.find("BINIT"));
+    }
+
+    @Test
+    public void bookFindsEntriesAfterDeleteRollUpAndReload() throws IOException {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 12, 0);
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "old", now.minusYears(2)));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "a", now));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "b", now));
+        book.addEntry(new WorkoutEntry("binit", "Bench", "c", now));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "d", now));
+        book.deleteByIndex(2);
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofYears(1), RetentionPolicy.Action.ROLL_UP));
+        assertEquals(1, book.applyRetention(now));
+        assertEquals(List.of("c", "d"), texts(book.findByTrainerName("BINIT")));
+
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            WorkoutEntryBookStorage.save(book, file);
+            WorkoutEntryBook loaded = WorkoutEntryBookStorage.load(file);
+            assertEquals(List.of("c", "d"), texts(loaded.findByTrainerName("binit")));
+
+            loaded.addEntry(new WorkoutEntry("Binit", "Squat", "e", now));
+            loaded.deleteByIndex(1);
+            assertEquals(List.of("d", "e"), texts(loaded.findByTrainerName("Binit")));
+            assertEquals(List.of("a"), texts(loaded.findByTrainerName("Arne")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<String> texts(List<WorkoutEntry> entries) {
+        return entries.stream().map(WorkoutEntry::getText).toList();
+    }
+
+    @Test
+    public void findNullOrBlankName() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        index.add("Binit");
+        assertTrue(index.find(null).isEmpty());
+        assertTrue(index.find("   ").isEmpty());
+        assertTrue(index.suggest(null, 2, 10).isEmpty());
+    }
+
+    @Test
+    public void addNullName() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        try {
+            index.add(null);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+
+    @Test
+    public void addEntryOutOfOrder() {
+        TrainerNameIndex index = new TrainerNameIndex();
+        index.add("Binit");
+        index.addEntry("Binit", 5);
+        try {
+            index.addEntry("binit", 5);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            index.addEntry("Arne", 6);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
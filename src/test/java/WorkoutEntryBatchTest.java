@@ -0,0 +1,181 @@
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.ui.WorkoutEntryBatch;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Perform unit tests on the WorkoutEntryBatch class.
+ *
+ * The following positive tests are executed:
+ *
+ * Add entries and run every search command.
+ * Expect the matching entries to be printed and the exit status to be 0.
+ *
+ * Add the same entry twice.
+ * Expect one entry and one duplicate.
+ *
+ * Delete an entry and print the stats and count.
+ * Expect the deleted entry to be gone.
+ *
+ * Skip blank lines and comments.
+ * Expect no commands to run.
+ *
+ * The following negative tests are executed:
+ *
+ * Run malformed add, date, range and delete commands.
+ * Expect each line to be reported, the book to be unchanged and the exit status to be 1.
+ *
+ * Run an unknown command.
+ * Expect it to be reported without a timing row, and the exit status to be 1.
+ *
+ * Write to an output that fails.
+ * Expect the exit status to be 1.
+ *
+ * Construct a WorkoutEntryBatch with a null book.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryBatchTest {
+
+    /**
+     * Runs the given lines against the book and returns everything written.
+     */
+    private static String run(WorkoutEntryBatch batch, int expectedStatus, String... lines) throws IOException {
+        StringWriter text = new StringWriter();
+        int status = batch.run(new BufferedReader(new StringReader(String.join("\n", lines))),
+                new PrintWriter(text));
+        assertEquals(expectedStatus, status);
+        return text.toString();
+    }
+
+    @Test
+    public void searchCommands() throws IOException {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        String output = run(new WorkoutEntryBatch(book), 0,
+                "add Binit | Squat | 4 sets of 12 reps | 2025-09-29T08:30",
+                "add Arne | Treadmill | Warmup | 2025-09-30T07:00",
+                "list",
+                "TRAINER binit",
+                "workout squat",
+                "date 2025-09-30",
+                "range 2025-09-01 2025-09-30");
+
+        assertEquals(2, book.getNumberOfEntries());
+        assertTrue(output.contains("[0] "));
+        assertTrue(output.contains("[1] "));
+        assertEquals(3, output.split("Found 1 entries", -1).length - 1);
+        assertTrue(output.contains("Found 2 entries"));
+        assertTrue(output.contains("Failed commands: 0, entries: 2"));
+    }
+
+    @Test
+    public void addDuplicate() throws IOException {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        String output = run(new WorkoutEntryBatch(book), 0,
+                "add Binit | Squat | 4 sets | 2025-09-29T08:30",
+                "add Binit | Squat | 4 sets | 2025-09-29T08:30",
+                "duplicates");
+
+        assertEquals(1, book.getNumberOfEntries());
+        assertEquals(1, book.getNumberOfDuplicates());
+        assertTrue(output.contains("Duplicate entry, not added."));
+    }
+
+    @Test
+    public void deleteAndStats() throws IOException {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "a", null));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "b", null));
+        String output = run(new WorkoutEntryBatch(book), 0, "delete 0", "stats", "count");
+
+        assertEquals(1, book.getNumberOfEntries());
+        assertTrue(output.contains("- Arne (1)"));
+        assertFalse(output.contains("- Binit"));
+        assertTrue(output.contains("1\n"));
+    }
+
+    @Test
+    public void skipBlankLinesAndComments() throws IOException {
+        WorkoutEntryBatch batch = new WorkoutEntryBatch();
+        String output = run(batch, 0, "", "   ", "# add Binit | Squat | a");
+
+        assertEquals(0, batch.getFailedCommands());
+        assertTrue(output.contains("entries: 0"));
+    }
+
+    @Test
+    public void malformedCommands() throws IOException {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        WorkoutEntryBatch batch = new WorkoutEntryBatch(book);
+        String output = run(batch, 1,
+                "add Binit | Squat",
+                "add Binit | Squat | a | yesterday",
+                "date 29.09.2025",
+                "range 2025-09-01",
+                "delete first",
+                "delete 0");
+
+        assertEquals(6, batch.getFailedCommands());
+        assertEquals(0, book.getNumberOfEntries());
+        for (int line = 1; line <= 6; line++) {
+            assertTrue(output.contains("Line " + line + ": "));
+        }
+    }
+
+    @Test
+    public void unknownCommand() throws IOException {
+        WorkoutEntryBatch batch = new WorkoutEntryBatch();
+        String output = run(batch, 1, "count", "Jump 3");
+
+        assertEquals(1, batch.getFailedCommands());
+        assertTrue(output.contains("Line 2: Unknown command: jump"));
+        assertFalse(output.contains("\njump "));
+        assertTrue(output.contains("\ncount "));
+    }
+
+    @Test
+    public void failingOutput() throws IOException {
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        WorkoutEntryBatch batch = new WorkoutEntryBatch();
+        int status = batch.run(new BufferedReader(new StringReader("count")), new PrintWriter(broken));
+
+        assertEquals(0, batch.getFailedCommands());
+        assertEquals(1, status);
+    }
+
+    @Test
+    public void nullBook() {
+        try {
+            new WorkoutEntryBatch(null);
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
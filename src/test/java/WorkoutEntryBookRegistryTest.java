@@ -0,0 +1,165 @@
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.service.WorkoutEntryBookRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Perform unit tests on the WorkoutEntryBookRegistry class.
+ *
+ * The following positive tests are executed:
+ *
+ * Add entries to the books of two gyms.
+ * Expect each gym to see only its own entries.
+ *
+ * Go over the memory budget with several gyms.
+ * Expect the least recently used books to be saved and dropped, and to come back unchanged when used again.
+ * Expect the book that was just used to stay in memory.
+ *
+ * Use a budget smaller than one book.
+ * Expect the book to stay in memory between uses instead of being reloaded every time.
+ *
+ * Leave a book unused for longer than the idle timeout.
+ * Expect it to be dropped by evictIdle.
+ *
+ * Register a trainer, add and delete their entry and compact the history, several times.
+ * Expect the book's estimated size to return to the same baseline each time.
+ *
+ * The following negative tests are executed:
+ *
+ * Use the book of a blank gym name.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryBookRegistryTest {
+
+    private static final LocalDateTime WHEN = LocalDateTime.of(2025, 9, 29, 8, 30);
+
+    @Test
+    public void booksAreSeparatedByGym() throws IOException {
+        Path dir = Files.createTempDirectory("registry");
+        try (WorkoutEntryBookRegistry registry = new WorkoutEntryBookRegistry(dir, 1 << 20, Duration.ofMinutes(5))) {
+            registry.withBook("Gym A", book -> {
+                book.addEntry(new WorkoutEntry("Binit", "Squat", "Warmup", WHEN));
+                return null;
+            });
+            registry.withBook("Gym B", book -> {
+                book.addEntry(new WorkoutEntry("Arne", "Cycling", "Cardio", WHEN));
+                book.addEntry(new WorkoutEntry("Arne", "Rowing", "Cardio", WHEN));
+                return null;
+            });
+
+            assertEquals(1, registry.withBook("Gym A", book -> book.getNumberOfEntries()));
+            assertEquals(2, registry.withBook("Gym B", book -> book.getNumberOfEntries()));
+            assertEquals(2, registry.getResidentBooks());
+        }
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedOverBudget() throws IOException {
+        Path dir = Files.createTempDirectory("registry");
+        // room for two books with up to five entries each
+        WorkoutEntryBook largest = new WorkoutEntryBook();
+        for (int i = 0; i < 5; i++) {
+            largest.addEntry(new WorkoutEntry("Binit", "Squat", "Set " + i, WHEN));
+        }
+        long budget = 2 * largest.getEstimatedSize();
+        try (WorkoutEntryBookRegistry registry = new WorkoutEntryBookRegistry(dir, budget, Duration.ofMinutes(5))) {
+            for (int gym = 0; gym < 5; gym++) {
+                int entries = gym + 1;
+                registry.withBook("Gym " + gym, book -> {
+                    for (int i = 0; i < entries; i++) {
+                        book.addEntry(new WorkoutEntry("Binit", "Squat", "Set " + i, WHEN));
+                    }
+                    return null;
+                });
+            }
+
+            assertEquals(3, registry.getEvictions());
+            assertEquals(2, registry.getResidentBooks());
+            assertTrue(registry.getResidentSize() <= budget);
+            assertEquals(3, registry.withBook("Gym 2", book -> book.findByTrainerName("Binit").size()));
+            assertEquals("Set 2", registry.withBook("Gym 2", book -> book.findByWorkout("Squat").get(2).getText()));
+            assertEquals(6, registry.getLoads());
+        }
+    }
+
+    @Test
+    public void keepJustUsedBookOverBudget() throws IOException {
+        Path dir = Files.createTempDirectory("registry");
+        try (WorkoutEntryBookRegistry registry = new WorkoutEntryBookRegistry(dir, 2_000, Duration.ofMinutes(5))) {
+            for (int i = 0; i < 3; i++) {
+                registry.withBook("Gym A", book -> {
+                    book.addEntry(new WorkoutEntry("Binit", "Squat", "Warmup", WHEN));
+                    return null;
+                });
+            }
+
+            assertEquals(1, registry.getLoads());
+            assertEquals(0, registry.getEvictions());
+            assertEquals(3, registry.withBook("Gym A", book -> book.getNumberOfEntries()));
+
+            registry.withBook("Gym B", book -> null);
+            assertEquals(1, registry.getEvictions());
+            assertEquals(1, registry.getResidentBooks());
+        }
+    }
+
+    @Test
+    public void evictIdleBooks() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("registry");
+        try (WorkoutEntryBookRegistry registry = new WorkoutEntryBookRegistry(dir, 1 << 20, Duration.ofMillis(1))) {
+            registry.withBook("Gym A", book -> {
+                book.registerTrainer("Binit");
+                return null;
+            });
+            Thread.sleep(5);
+
+            assertEquals(1, registry.evictIdle());
+            assertEquals(0, registry.getResidentBooks());
+            assertEquals(1, registry.withBook("Gym A", book -> book.getTrainers().size()));
+            assertEquals(2, registry.getLoads());
+        }
+    }
+
+    @Test
+    public void estimatedSizeReturnsToBaseline() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.setHistoryRetention(Duration.ZERO);
+        long baseline = 0;
+        for (int cycle = 0; cycle < 5; cycle++) {
+            book.registerTrainer("Binit");
+            book.addEntry(new WorkoutEntry("Binit", "Squat", "Set " + cycle, WHEN));
+            book.addEntry(new WorkoutEntry("Binit", "Squat", "Set " + cycle, WHEN));
+            book.deleteByIndex(0);
+            book.deleteByIndex(0);
+            book.compactHistory(LocalDateTime.now().plusDays(1));
+
+            // the distinct count sketches never forget, so the baseline is taken after the first cycle
+            if (cycle == 0) {
+                baseline = book.getEstimatedSize();
+            }
+            assertEquals(baseline, book.getEstimatedSize());
+        }
+    }
+
+    @Test
+    public void useBlankGymName() throws IOException {
+        Path dir = Files.createTempDirectory("registry");
+        try (WorkoutEntryBookRegistry registry = new WorkoutEntryBookRegistry(dir, 1 << 20, Duration.ofMinutes(5))) {
+            registry.withBook(" ", book -> null);
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
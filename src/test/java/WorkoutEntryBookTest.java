@@ -1,7 +1,18 @@
+import edu.ntnu.bidata.prog1.model.ArrayListEntryStore;
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
 import edu.ntnu.bidata.prog1.model.WorkoutEntry;
 import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutRollUp;
+import edu.ntnu.bidata.prog1.service.WorkoutEntryRetention;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -21,6 +32,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * Find entries by valid workout title.
  * Expect the correct entries to be returned.
  *
+ * Roll up entries older than the retention policy's age.
+ * Expect them to be removed from the entries, counted in daily roll-ups and still counted in the trainer statistics.
+ *
+ * Drop the text of entries older than the retention policy's age.
+ * Expect old entries to keep everything but their text, and newer entries to be unchanged.
+ *
+ * Run retention in the background on a book with a fixed clock.
+ * Expect the age of entries to be measured from the book's clock, not the system time.
+ *
  * The following negative tests are executed:
  *
  * Add a null WorkoutEntry to the WorkoutEntryBook collection.
@@ -129,4 +149,62 @@ public class WorkoutEntryBookTest {
             // Test successful, do nothing.
         }
     }
+
+    @Test
+    public void rollUpOldEntries() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        LocalDateTime now = LocalDateTime.of(2025, 9, 29, 12, 0);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Old", now.minusYears(2)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Old", now.minusYears(2).plusHours(1)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "New", now.minusDays(1)));
+        book.addEntry(new WorkoutEntry("Arne", "Cycling", "Old", now.minusYears(3)));
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofYears(1), RetentionPolicy.Action.ROLL_UP));
+
+        assertEquals(3, book.applyRetention(now));
+        assertEquals(1, book.getNumberOfEntries());
+        assertEquals(3, book.getNumberOfRolledUpEntries());
+        assertEquals(3, book.getTrainerStats().get("Binit"));
+        assertEquals(1, book.getTrainerStats().get("Arne"));
+
+        List<WorkoutRollUp> rollUps = book.getRollUps();
+        assertEquals(2, rollUps.size());
+        assertEquals("Arne", rollUps.get(0).getTrainerName());
+        assertEquals(2, rollUps.get(1).getCount());
+    }
+
+    @Test
+    public void dropTextOfOldEntries() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        LocalDateTime now = LocalDateTime.of(2025, 9, 29, 12, 0);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Old", now.minusDays(100)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "New", now.minusDays(1)));
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofDays(90), RetentionPolicy.Action.DROP_TEXT));
+
+        assertEquals(1, book.applyRetention(now));
+        assertEquals(0, book.applyRetention(now));
+        List<WorkoutEntry> entries = book.findByTrainerName("Binit");
+        assertEquals("", entries.get(0).getText());
+        assertEquals(now.minusDays(100), entries.get(0).getTimestamp());
+        assertEquals("New", entries.get(1).getText());
+    }
+
+    @Test
+    public void retentionRunsOnBookClock() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(),
+                Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Old", now.minusDays(100)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Later", now.plusMonths(6)));
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofDays(90), RetentionPolicy.Action.DROP_TEXT));
+
+        try (WorkoutEntryRetention retention = new WorkoutEntryRetention(book, Duration.ofMillis(1))) {
+            for (int i = 0; i < 500 && retention.getTotalChanged() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, retention.getTotalChanged());
+            assertEquals(0, retention.getFailedRuns());
+        }
+        assertEquals("", book.findByTrainerName("Binit").get(0).getText());
+        assertEquals("Later", book.findByTrainerName("Binit").get(1).getText());
+    }
 }
@@ -0,0 +1,108 @@
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Perform unit tests on the WorkoutEntryGenerator class.
+ *
+ * The following positive tests are executed:
+ *
+ * Generate entries with two generators with the same seed.
+ * Expect the same entries.
+ *
+ * Fill a book with many entries.
+ * Expect the entries in time order within the period, during opening hours, most often on weekdays,
+ * with a few trainers logging most of them and texts of varied length.
+ *
+ * The following negative tests are executed:
+ *
+ * Create a generator with no trainers or a period that ends before it starts.
+ * Expect an exception to be thrown.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryGeneratorTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    @Test
+    public void sameSeedSameEntries() {
+        WorkoutEntryGenerator first = new WorkoutEntryGenerator(7, 50, FROM, TO);
+        WorkoutEntryGenerator second = new WorkoutEntryGenerator(7, 50, FROM, TO);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.next().toString(), second.next().toString());
+        }
+    }
+
+    @Test
+    public void fillWithRealisticEntries() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        WorkoutEntryGenerator generator = new WorkoutEntryGenerator(42, 100, FROM, TO);
+        generator.fill(book, 20_000);
+        assertEquals(20_000, book.getNumberOfEntries());
+
+        LocalDateTime previous = FROM.atStartOfDay();
+        int weekdays = 0;
+        int sundays = 0;
+        int shortest = Integer.MAX_VALUE;
+        int longest = 0;
+        Iterator<WorkoutEntry> it = book.getIterator();
+        while (it.hasNext()) {
+            WorkoutEntry entry = it.next();
+            LocalDateTime time = entry.getTimestamp();
+            assertTrue(!time.isBefore(previous) && !time.toLocalDate().isAfter(TO));
+            assertTrue(time.getHour() >= 5 && time.getHour() < 23);
+            previous = time;
+            if (time.getDayOfWeek() == DayOfWeek.MONDAY) {
+                weekdays++;
+            } else if (time.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                sundays++;
+            }
+            shortest = Math.min(shortest, entry.getText().length());
+            longest = Math.max(longest, entry.getText().length());
+        }
+        assertTrue(weekdays > sundays * 1.5, weekdays + " Mondays, " + sundays + " Sundays");
+        assertTrue(shortest < 40 && longest > 300, shortest + " to " + longest);
+
+        Map<String, Integer> top = book.getTopTrainers(1);
+        String busiest = generator.getTrainers().get(0);
+        assertTrue(top.get(busiest) > 20_000 / 10, "busiest trainer has " + top);
+        assertTrue(book.getTrainerStats().getOrDefault(generator.getTrainers().get(99), 0) < 20_000 / 100);
+        assertTrue(book.getProgression(busiest, "Squat").getPersonalRecord() > 0);
+    }
+
+    @Test
+    public void rejectInvalidArguments() {
+        try {
+            new WorkoutEntryGenerator(1, 0, FROM, TO);
+            fail("Expected an exception for no trainers");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new WorkoutEntryGenerator(1, 10, TO, FROM);
+            fail("Expected an exception for a period that ends before it starts");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new WorkoutEntryGenerator(1, 10, FROM, TO).fill(new WorkoutEntryBook(), -1);
+            fail("Expected an exception for a negative count");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
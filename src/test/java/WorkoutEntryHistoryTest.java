@@ -0,0 +1,261 @@
+import edu.ntnu.bidata.prog1.model.ArrayListEntryStore;
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.service.WorkoutEntryBookStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Perform unit tests on searching a WorkoutEntryBook as of an earlier version or time.
+ *
+ * The following positive tests are executed:
+ *
+ * Add and delete entries on different days, and search as of each version and time.
+ * Expect each search to see exactly the entries that existed then, in the order they were added.
+ *
+ * Roll up old entries with a retention policy, then delete and search.
+ * Expect the rolled up entries to be gone from every version, and the other entries to be found.
+ * Expect the trainer statistics of each version to count the rolled up entries added by then,
+ * and to match the current statistics at the current version.
+ *
+ * Compact the history.
+ * Expect deleted entries older than the history retention to be forgotten, and newer versions to still be searchable.
+ *
+ * Drop the text of old entries with a retention policy, then search as of a version before that.
+ * Expect the entries to be found without their text, and the trainer statistics to be unchanged.
+ *
+ * Save and load a book with deleted entries.
+ * Expect the loaded book to be searchable as of the same versions and times as the saved one.
+ *
+ * The following negative tests are executed:
+ *
+ * Search a future version, a compacted version, and a compacted time.
+ * Expect an exception to be thrown.
+
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutEntryHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 1, 12, 0);
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class TestClock extends Clock {
+        private Instant now = START.toInstant(ZoneOffset.UTC);
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static List<String> texts(List<WorkoutEntry> entries) {
+        return entries.stream().map(WorkoutEntry::getText).toList();
+    }
+
+    @Test
+    public void searchAsOfVersionsAndTimes() {
+        TestClock clock = new TestClock();
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), clock);
+        LocalDate day = LocalDate.of(2025, 8, 30);
+
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "a", day.atTime(8, 0)));
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "b", day.atTime(9, 0)));
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("Binit", "Biceps", "c", day.plusDays(1).atTime(8, 0)));
+        clock.advance(Duration.ofDays(1));
+        book.deleteByIndex(0);
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("binit", "Squat", "d", day.atTime(10, 0)));
+        book.deleteByIndex(1);
+
+        assertEquals(6, book.getVersion());
+        assertEquals(List.of("d"), texts(book.findByTrainerName("Binit", 6)));
+        assertEquals(List.of("c", "d"), texts(book.findByTrainerName("Binit", 5)));
+        assertEquals(List.of("c"), texts(book.findByTrainerName("Binit", 4)));
+        assertEquals(List.of("a", "c"), texts(book.findByTrainerName("Binit", 3)));
+        assertEquals(List.of("a", "b"), texts(book.findByWorkout("squat", 3)));
+        assertEquals(List.of(), texts(book.findByTrainerName("Binit", 0)));
+        assertEquals(List.of("a", "b"), texts(book.findByDate(day, 3)));
+        assertEquals(List.of("b", "c"), texts(book.findByDateRange(day, day.plusDays(1), 4)));
+        assertEquals(Map.of("Binit", 2, "Arne", 1), book.getTrainerStats(3));
+        assertEquals(Map.of("Arne", 1, "binit", 1), book.getTrainerStats(6));
+
+        assertEquals(0, book.versionAt(START));
+        assertEquals(2, book.versionAt(START.plusDays(2).plusHours(5)));
+        assertEquals(6, book.versionAt(START.plusYears(1)));
+        assertEquals(List.of("a", "b"), texts(book.findByWorkout("Squat", book.versionAt(START.plusDays(3)))));
+    }
+
+    @Test
+    public void rolledUpEntriesLeaveEveryVersion() {
+        TestClock clock = new TestClock();
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), clock);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "old", START.minusYears(2)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "new", START.minusDays(1)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "older", START.minusYears(3)));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "newest", START));
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofYears(1), RetentionPolicy.Action.ROLL_UP));
+
+        assertEquals(2, book.applyRetention(START));
+        assertEquals(List.of("new"), texts(book.findByTrainerName("Binit", 2)));
+        assertEquals(List.of("new", "newest"), texts(book.findByTrainerName("Binit", 4)));
+        assertEquals(Map.of(), book.getTrainerStats(0));
+        assertEquals(Map.of("Binit", 2), book.getTrainerStats(2));
+        assertEquals(book.getTrainerStats(), book.getTrainerStats(book.getVersion()));
+
+        book.deleteByIndex(1);
+        assertEquals(List.of("new"), texts(book.findByTrainerName("Binit", 5)));
+        assertEquals(List.of("new", "newest"), texts(book.findByTrainerName("Binit", 4)));
+        assertEquals(Map.of("Binit", 3), book.getTrainerStats(5));
+        assertEquals(book.getTrainerStats(), book.getTrainerStats(book.getVersion()));
+    }
+
+    @Test
+    public void droppedTextIsGoneFromEveryVersion() {
+        TestClock clock = new TestClock();
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), clock);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "old", START.minusYears(2)));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "new", START));
+        book.deleteByIndex(1);
+        long before = book.getVersion();
+        book.addRetentionPolicy(new RetentionPolicy(Period.ofDays(90), RetentionPolicy.Action.DROP_TEXT));
+
+        assertEquals(1, book.applyRetention(START));
+        assertEquals(before, book.getVersion());
+        assertEquals(List.of(""), texts(book.findByTrainerName("Binit", 1)));
+        assertEquals(List.of("", "new"), texts(book.findByWorkout("Squat", 2)));
+        assertEquals(Map.of("Binit", 1, "Arne", 1), book.getTrainerStats(2));
+    }
+
+    @Test
+    public void compactHistoryOlderThanRetention() {
+        TestClock clock = new TestClock();
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), clock);
+        book.setHistoryRetention(Duration.ofDays(7));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "a", START));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "b", START));
+        book.deleteByIndex(0);
+        clock.advance(Duration.ofDays(10));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "c", START));
+        book.deleteByIndex(0);
+        assertEquals(2, book.getNumberOfDeletedEntries());
+
+        assertEquals(1, book.compactHistory(LocalDateTime.now(clock)));
+        assertEquals(1, book.getNumberOfDeletedEntries());
+        assertEquals(3, book.getOldestVersion());
+        assertEquals(List.of("b", "c"), texts(book.findByTrainerName("Binit", 4)));
+        assertEquals(3, book.versionAt(LocalDateTime.now(clock).minusDays(7)));
+
+        clock.advance(Duration.ofDays(10));
+        assertEquals(1, book.compactHistory(LocalDateTime.now(clock)));
+        assertEquals(0, book.getNumberOfDeletedEntries());
+        assertEquals(List.of("c"), texts(book.findByTrainerName("Binit", 5)));
+    }
+
+    @Test
+    public void keepHistoryAfterSaveAndLoad() throws IOException {
+        TestClock clock = new TestClock();
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), clock);
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "a", START));
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("Arne", "Squat", "b", START));
+        clock.advance(Duration.ofDays(1));
+        book.deleteByIndex(0);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "c", START));
+
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            WorkoutEntryBookStorage.save(book, file);
+            WorkoutEntryBook loaded = WorkoutEntryBookStorage.load(file);
+
+            assertEquals(4, loaded.getVersion());
+            assertEquals(1, loaded.getNumberOfDeletedEntries());
+            assertEquals(book.getEstimatedSize(), loaded.getEstimatedSize());
+            assertEquals(0, loaded.versionAt(START));
+            assertEquals(2, loaded.versionAt(START.plusDays(2)));
+            assertEquals(List.of("a", "b"), texts(loaded.findByWorkout("Squat", loaded.versionAt(START.plusDays(2)))));
+            assertEquals(List.of("b", "c"), texts(loaded.findByWorkout("Squat", 4)));
+            assertEquals(Map.of("Binit", 1, "Arne", 1), loaded.getTrainerStats(2));
+
+            loaded.addEntry(new WorkoutEntry("Binit", "Squat", "d", START));
+            assertEquals(List.of("b", "c", "d"), texts(loaded.findByWorkout("Squat", 5)));
+            assertEquals(List.of("a"), texts(loaded.findByWorkout("Squat", 1)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void rejectVersionsOutsideHistory() {
+        TestClock clock = new TestClock();
+        WorkoutEntryBook book = new WorkoutEntryBook(new ArrayListEntryStore(), clock);
+        book.setHistoryRetention(Duration.ZERO);
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "a", START));
+        clock.advance(Duration.ofDays(1));
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "b", START));
+        book.compactHistory(LocalDateTime.now(clock));
+
+        try {
+            book.findByTrainerName("Binit", 3);
+            fail("Expected an exception for a future version");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            book.getTrainerStats(1);
+            fail("Expected an exception for a compacted version");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            book.versionAt(START);
+            fail("Expected an exception for a compacted time");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+        try {
+            new WorkoutEntryBook(new ArrayListEntryStore(), null);
+            fail("Expected an exception for a null clock");
+        } catch (IllegalArgumentException e) {
+            // Test successful, do nothing.
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import edu.ntnu.bidata.prog1.model.RetentionPolicy;
+import edu.ntnu.bidata.prog1.model.WorkoutEntry;
+import edu.ntnu.bidata.prog1.model.WorkoutEntryBook;
+import edu.ntnu.bidata.prog1.model.WorkoutProgression;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Perform unit tests on the WorkoutProgression class and the progressions kept by WorkoutEntryBook.
+ *
+ * The following positive tests are executed:
+ *
+ * Read the load from texts mentioning one, several or no weights.
+ * Expect the heaviest weight, or NaN if there is none.
+ *
+ * Add entries with rising loads for a trainer and workout.
+ * Expect the personal record, moving average, trend and recent loads to follow.
+ *
+ * Delete the entry holding the personal record.
+ * Expect the personal record to be recalculated from the remaining entries.
+ *
+ * Delete one of many entries, then add another.
+ * Expect its load to leave the recent loads, and the new load to fill them up again.
+ *
+ * Delete many entries with the same heavy load.
+ * Expect the personal record to stay until the last of them is deleted.
+ *
+ * Delete an entry after retention dropped the text of, or rolled up, the others.
+ * Expect the personal record and sessions of the remaining entries to be kept.
+ *
+ * The following negative tests are executed:
+ *
+ * Ask for the progression of a trainer or workout without entries.
+ * Expect null, or an empty list.
+ *
+ * @version 2026-10-19
+ * @author Binit Dhungana
+ */
+public class WorkoutProgressionTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 1, 8, 0);
+
+    @Test
+    public void parseHeaviestLoad() {
+        assertEquals(60.0, WorkoutProgression.parseLoad("3 sets at 50 kg, then 60kg"));
+        assertEquals(42.5, WorkoutProgression.parseLoad("Top set 42,5 KG"));
+        assertTrue(Double.isNaN(WorkoutProgression.parseLoad("12 reps, 3 sets")));
+    }
+
+    @Test
+    public void followLoadsOfTrainerAndWorkout() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        for (int i = 0; i < 12; i++) {
+            book.addEntry(new WorkoutEntry("Binit", "Squat", "5 reps at " + (50 + 5 * i) + " kg",
+                    START.plusDays(i)));
+        }
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "Rest day, mobility only", START.plusDays(12)));
+        book.addEntry(new WorkoutEntry("Binit", "Biceps", "3 sets at 12 kg", START));
+
+        WorkoutProgression squat = book.getProgression(" binit ", "SQUAT");
+        assertEquals(13, squat.getSessions());
+        assertEquals(105.0, squat.getPersonalRecord());
+        assertEquals(START.plusDays(11), squat.getPersonalRecordTime());
+        assertEquals(WorkoutProgression.HISTORY, squat.getRecentLoads().size());
+        assertEquals(60.0, squat.getRecentLoads().get(0));
+        assertEquals(82.5, squat.getMovingAverage(), 1e-9);
+        assertEquals(25.0, squat.getTrend(), 1e-9);
+
+        List<WorkoutProgression> all = book.getProgressions("Binit");
+        assertEquals(List.of("Squat", "Biceps"), all.stream().map(WorkoutProgression::getWorkout).toList());
+    }
+
+    @Test
+    public void recalculateAfterDelete() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(new WorkoutEntry("Arne", "Bench Press", "80 kg", START));
+        book.addEntry(new WorkoutEntry("Arne", "Bench Press", "100 kg", START.plusDays(1)));
+        book.addEntry(new WorkoutEntry("Arne", "Bench Press", "90 kg", START.plusDays(2)));
+        WorkoutProgression before = book.getProgression("Arne", "Bench Press");
+
+        book.deleteByIndex(1);
+
+        WorkoutProgression after = book.getProgression("Arne", "Bench Press");
+        assertEquals(90.0, after.getPersonalRecord());
+        assertEquals(2, after.getSessions());
+        assertEquals(100.0, before.getPersonalRecord());
+
+        book.deleteByIndex(0);
+        book.deleteByIndex(0);
+        assertNull(book.getProgression("Arne", "Bench Press"));
+    }
+
+    @Test
+    public void removeFromRecentLoads() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        for (int i = 0; i < 12; i++) {
+            book.addEntry(new WorkoutEntry("Binit", "Squat", (50 + 5 * i) + " kg", START.plusDays(i)));
+        }
+
+        book.deleteByIndex(10);
+
+        WorkoutProgression squat = book.getProgression("Binit", "Squat");
+        assertEquals(11, squat.getSessions());
+        assertEquals(List.of(60.0, 65.0, 70.0, 75.0, 80.0, 85.0, 90.0, 95.0, 105.0), squat.getRecentLoads());
+        assertEquals(105.0, squat.getPersonalRecord());
+
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "110 kg", START.plusDays(12)));
+        squat = book.getProgression("Binit", "Squat");
+        assertEquals(List.of(60.0, 65.0, 70.0, 75.0, 80.0, 85.0, 90.0, 95.0, 105.0, 110.0), squat.getRecentLoads());
+        assertEquals(83.5, squat.getMovingAverage(), 1e-9);
+    }
+
+    @Test
+    public void keepRecordUntilLastCopyIsDeleted() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(new WorkoutEntry("Binit", "Squat", "80 kg", START));
+        for (int i = 1; i <= 20; i++) {
+            book.addEntry(new WorkoutEntry("Binit", "Squat", "120 kg", START.plusDays(i)));
+        }
+
+        for (int i = 1; i < 20; i++) {
+            book.deleteByIndex(1);
+            assertEquals(120.0, book.getProgression("Binit", "Squat").getPersonalRecord());
+        }
+        book.deleteByIndex(1);
+        assertEquals(80.0, book.getProgression("Binit", "Squat").getPersonalRecord());
+        assertEquals(START, book.getProgression("Binit", "Squat").getPersonalRecordTime());
+        assertTrue(book.getProgression("Binit", "Squat").getRecentLoads().isEmpty());
+    }
+
+    @Test
+    public void keepLoadsAfterRetention() {
+        LocalDateTime now = START.plusYears(1);
+        WorkoutEntryBook dropText = new WorkoutEntryBook();
+        dropText.addEntry(new WorkoutEntry("Binit", "Squat", "100 kg", START));
+        dropText.addEntry(new WorkoutEntry("Binit", "Squat", "50 kg", START.plusDays(1)));
+        dropText.addEntry(new WorkoutEntry("Binit", "Squat", "60 kg", now));
+        dropText.addRetentionPolicy(new RetentionPolicy(Period.ofDays(90), RetentionPolicy.Action.DROP_TEXT));
+        dropText.applyRetention(now);
+
+        dropText.deleteByIndex(1);
+        assertEquals(100.0, dropText.getProgression("Binit", "Squat").getPersonalRecord());
+        assertEquals(List.of(100.0, 60.0), dropText.getProgression("Binit", "Squat").getRecentLoads());
+
+        WorkoutEntryBook rollUp = new WorkoutEntryBook();
+        rollUp.addEntry(new WorkoutEntry("Binit", "Squat", "100 kg", START));
+        rollUp.addEntry(new WorkoutEntry("Binit", "Squat", "80 kg", START.plusDays(1)));
+        rollUp.addEntry(new WorkoutEntry("Binit", "Squat", "60 kg", now));
+        rollUp.addRetentionPolicy(new RetentionPolicy(Period.ofDays(90), RetentionPolicy.Action.ROLL_UP));
+        rollUp.applyRetention(now);
+
+        rollUp.deleteByIndex(0);
+        assertEquals(2, rollUp.getProgression("Binit", "Squat").getSessions());
+        assertEquals(100.0, rollUp.getProgression("Binit", "Squat").getPersonalRecord());
+    }
+
+    @Test
+    public void noProgressionWithoutEntries() {
+        WorkoutEntryBook book = new WorkoutEntryBook();
+        book.addEntry(new WorkoutEntry("Omkar", "Squat", "60 kg", START));
+
+        assertNull(book.getProgression("Omkar", "Dead-lift"));
+        assertNull(book.getProgression("Sabin", "Squat"));
+        assertNull(book.getProgression(null, "Squat"));
+        assertTrue(book.getProgressions("Sabin").isEmpty());
+        assertTrue(book.getProgressions(" ").isEmpty());
+    }
+}